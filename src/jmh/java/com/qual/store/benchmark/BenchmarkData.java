@@ -0,0 +1,100 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.model.*;
+import com.qual.store.model.enums.OrderStatus;
+import com.qual.store.model.enums.RoleName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// detached entity graphs shaped like the ones the services hand to the converters
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static AppUser user(long id) {
+        AppUser user = AppUser.builder()
+                .username("user" + id)
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .email("user" + id + "@store.com")
+                .role(RoleName.USER)
+                .build();
+        user.setId(id);
+        return user;
+    }
+
+    static Product product(long id, int reviewCount, int imageCount, int orderItemCount) {
+        Category category = Category.builder().name("category").products(new ArrayList<>()).build();
+        category.setId(1L);
+
+        List<Review> reviews = new ArrayList<>(reviewCount);
+        for (int i = 0; i < reviewCount; i++) {
+            Review review = Review.builder()
+                    .rating(1 + i % 5)
+                    .title("title " + i)
+                    .comment("comment " + i)
+                    .date(LocalDateTime.now())
+                    .build();
+            review.setId((long) i);
+            reviews.add(review);
+        }
+
+        Set<ImageModel> images = new HashSet<>();
+        for (int i = 0; i < imageCount; i++) {
+            ImageModel image = ImageModel.builder().name("image" + id + "_" + i + ".png").type("image/png").build();
+            image.setId((long) i);
+            images.add(image);
+        }
+
+        Set<OrderItem> orderItems = new HashSet<>();
+        for (int i = 0; i < orderItemCount; i++) {
+            OrderItem orderItem = OrderItem.builder().quantity(1).build();
+            orderItem.setId((long) i);
+            orderItems.add(orderItem);
+        }
+
+        Product product = Product.builder()
+                .name("product " + id)
+                .description("description of product " + id)
+                .price(99.99)
+                .unitsInStock(100)
+                .discountPercentage(10)
+                .createTime(new Date())
+                .updateTime(new Date())
+                .category(category)
+                .user(user(1L))
+                .reviews(reviews)
+                .images(images)
+                .orderItems(orderItems)
+                .favoriteByUsers(new HashSet<>())
+                .build();
+        product.setId(id);
+        return product;
+    }
+
+    static Order order(long id, int itemCount) {
+        Set<OrderItem> orderItems = new HashSet<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem orderItem = OrderItem.builder()
+                    .quantity(1 + i % 3)
+                    .product(product(i, 0, 1, 0))
+                    .build();
+            orderItem.setId((long) i);
+            orderItems.add(orderItem);
+        }
+
+        Order order = Order.builder()
+                .deliveryPrice(15)
+                .startDate(LocalDate.now())
+                .deliveryDate(LocalDate.now().plusDays(3))
+                .status(OrderStatus.PLACED)
+                .user(user(2L))
+                .orderItems(orderItems)
+                .build();
+        order.setId(id);
+        return order;
+    }
+}
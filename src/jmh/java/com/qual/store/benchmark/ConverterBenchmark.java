@@ -0,0 +1,45 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.converter.OrderConverter;
+import com.qual.store.converter.ProductConverter;
+import com.qual.store.dto.OrderDto;
+import com.qual.store.dto.ProductDto;
+import com.qual.store.model.Order;
+import com.qual.store.model.Product;
+import com.qual.store.utils.ProductRatingCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConverterBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int children;
+
+    private ProductConverter productConverter;
+    private OrderConverter orderConverter;
+    private Product product;
+    private Order order;
+
+    @Setup
+    public void setup() {
+        // model -> dto conversion does not touch the repositories
+        productConverter = new ProductConverter(null, null, null, null, new ProductRatingCalculator());
+        orderConverter = new OrderConverter(null, null);
+        product = BenchmarkData.product(1L, children, Math.min(children, 5), children);
+        order = BenchmarkData.order(1L, children);
+    }
+
+    @Benchmark
+    public ProductDto productModelToDto() {
+        return productConverter.convertModelToDto(product);
+    }
+
+    @Benchmark
+    public OrderDto orderModelToDto() {
+        return orderConverter.convertModelToDto(order);
+    }
+}
@@ -0,0 +1,41 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.utils.images.ImageUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImageUtilsBenchmark {
+
+    // typical thumbnail and product photo sizes
+    @Param({"16384", "524288"})
+    private int size;
+
+    private byte[] raw;
+    private byte[] compressed;
+
+    @Setup
+    public void setup() {
+        // half random, half runs: roughly the ratio deflate gets on png/jpeg uploads
+        Random random = new Random(42);
+        raw = new byte[size];
+        for (int i = 0; i < size; i++) {
+            raw[i] = i % 2 == 0 ? (byte) random.nextInt(256) : (byte) (i / 64);
+        }
+        compressed = ImageUtils.compressBytes(raw);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return ImageUtils.compressBytes(raw);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return ImageUtils.decompressBytes(compressed);
+    }
+}
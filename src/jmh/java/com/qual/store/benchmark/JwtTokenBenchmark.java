@@ -0,0 +1,35 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.security.util.JwtTokenUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenBenchmark {
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        userDetails = User.withUsername("benchmark").password("password").authorities("USER").build();
+        token = jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(userDetails);
+    }
+
+    // what JwtRequestFilter does on every authenticated request
+    @Benchmark
+    public boolean parseAndValidate() {
+        return jwtTokenUtil.getUsernameFromToken(token) != null && jwtTokenUtil.validateToken(token, userDetails);
+    }
+}
@@ -0,0 +1,29 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.model.Product;
+import com.qual.store.utils.ProductRatingCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductRatingBenchmark {
+
+    @Param({"0", "10", "1000"})
+    private int reviews;
+
+    private final ProductRatingCalculator productRatingCalculator = new ProductRatingCalculator();
+    private Product product;
+
+    @Setup
+    public void setup() {
+        product = BenchmarkData.product(1L, reviews, 0, 0);
+    }
+
+    @Benchmark
+    public double calculateRating() {
+        return productRatingCalculator.calculateRating(product);
+    }
+}
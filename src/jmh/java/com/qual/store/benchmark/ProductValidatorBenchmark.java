@@ -0,0 +1,41 @@
+package com.qual.store.benchmark;
+
+import com.qual.store.exceptions.ValidatorException;
+import com.qual.store.model.Product;
+import com.qual.store.utils.validators.ProductValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductValidatorBenchmark {
+
+    private final ProductValidator productValidator = new ProductValidator();
+    private Product valid;
+    private Product blankName;
+
+    @Setup
+    public void setup() {
+        valid = BenchmarkData.product(1L, 0, 0, 0);
+        blankName = BenchmarkData.product(2L, 0, 0, 0);
+        blankName.setName("   ");
+    }
+
+    @Benchmark
+    public Product validateValid() {
+        productValidator.validate(valid);
+        return valid;
+    }
+
+    @Benchmark
+    public String validateBlankName() {
+        try {
+            productValidator.validate(blankName);
+            return null;
+        } catch (ValidatorException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.qual.store.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static com.qual.store.loadtest.LoadTestSettings.*;
+
+// bulk inserts with generate_series, a few minutes for the default sizes instead of days through /populate
+class DatasetSeeder {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final JdbcTemplate jdbcTemplate;
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void seed() {
+        long start = System.nanoTime();
+        // every user shares one hash, hashing 100k passwords would dominate the seeding time
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        insertInChunks("app_users", USERS, """
+                insert into app_users (id, username, first_name, last_name, email, password, role)
+                select g, 'user' || g, 'First' || g, 'Last' || g, 'user' || g || '@load.test', ?,
+                       case when g = 1 then 'ADMIN' else 'USER' end
+                from generate_series(?, ?) g
+                """, passwordHash);
+
+        // a two level tree with its materialized paths: the first ten categories are roots, the others their children.
+        // the path backfill of CategoryServiceImpl runs on startup, before this, so the paths are seeded here
+        insertInChunks("categories", CATEGORIES, """
+                insert into categories (id, name, parent_id, path)
+                select g, 'Category ' || g,
+                       case when g > 10 then (g - 1) % 10 + 1 end,
+                       case when g > 10 then '/' || ((g - 1) % 10 + 1) || '/' || g || '/' else '/' || g || '/' end
+                from generate_series(?, ?) g
+                """);
+
+        insertInChunks("products", PRODUCTS, """
+                insert into products (id, name, description, price, units_in_stock, discount_percentage,
+                                      create_time, update_time, category_id, user_id)
+                select g, 'Product ' || g || ' ' || substr(md5(g::text), 1, 8), 'Description of product ' || g,
+                       (g % 1000) + 0.99, 1000000, (g % 4) * 5, now(), now(), (g % ?) + 1, 1
+                from generate_series(?, ?) g
+                """, CATEGORIES);
+
+        insertInChunks("reviews", (long) PRODUCTS * REVIEWS_PER_PRODUCT, """
+                insert into reviews (id, rating, title, comment, date, product_id, user_id)
+                select g, 1 + g % 5, 'Review ' || g, 'Comment ' || g, now(), ((g - 1) % ?) + 1, (g % ?) + 1
+                from generate_series(?, ?) g
+                """, PRODUCTS, USERS);
+
+        long orders = Math.max(1, ORDER_ITEMS / ITEMS_PER_ORDER);
+        insertInChunks("orders", orders, """
+                insert into orders (id, delivery_price, start_date, delivery_date, status, user_id)
+                select g, 15, current_date - (g % 365)::int, current_date - (g % 365)::int + 3, 'DELIVERED', (g % ?) + 1
+                from generate_series(?, ?) g
+                """, USERS);
+
+        insertInChunks("order_items", ORDER_ITEMS, """
+                insert into order_items (id, quantity, product_id, order_id)
+                select g, 1 + g % 3, ((g * 7919) % ?) + 1, ((g - 1) / ?) + 1
+                from generate_series(?, ?) g
+                """, PRODUCTS, ITEMS_PER_ORDER);
+
+        for (String table : new String[]{"app_users", "categories", "products", "reviews", "orders", "order_items"}) {
+            jdbcTemplate.queryForObject("select setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                    + "(select coalesce(max(id), 1) from " + table + "))", Long.class);
+        }
+        jdbcTemplate.execute("analyze");
+        log.info("seeded {} users, {} products, {} orders, {} order items in {} s",
+                USERS, PRODUCTS, orders, ORDER_ITEMS, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    // the series bounds are always the last two parameters
+    private void insertInChunks(String table, long total, String sql, Object... leadingArgs) {
+        for (long from = 1; from <= total; from += SEED_CHUNK) {
+            long to = Math.min(total, from + SEED_CHUNK - 1);
+            Object[] args = new Object[leadingArgs.length + 2];
+            System.arraycopy(leadingArgs, 0, args, 0, leadingArgs.length);
+            args[leadingArgs.length] = from;
+            args[leadingArgs.length + 1] = to;
+            jdbcTemplate.update(sql, args);
+            log.info("{}: {}/{}", table, to, total);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.qual.store.loadtest;
+
+import com.qual.store.utils.inventory.HotStockInventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the same flash sale as StockReservationConcurrencyTest, with the product reserved from memory
+@SpringBootTest(properties = {
+        "store.rate-limit.enabled=false",
+        "logging.level.com.qual.store=WARN",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "store.hot-stock.enabled=true",
+        "store.hot-stock.product-ids=1",
+        "store.hot-stock.flush-interval-millis=200"
+})
+class HotStockConcurrencyTest extends StockConcurrencyTestSupport {
+
+    @Autowired
+    private HotStockInventory hotStockInventory;
+
+    @Test
+    public void concurrentHotReservationsNeverOversellTest() throws Exception {
+        assertEquals(UNITS, reserveConcurrently());
+        assertEquals(0L, hotStockInventory.available(PRODUCT_ID));
+
+        // the journal reaches the product row with the flush
+        int flushed;
+        do {
+            flushed = hotStockInventory.flush();
+        } while (flushed > 0);
+        assertEquals(0L, unitsInStock());
+        assertEquals(0L, jdbcTemplate.queryForObject("select count(*) from stock_journal", Long.class));
+    }
+}
@@ -0,0 +1,28 @@
+package com.qual.store.loadtest;
+
+// dataset and load sizes, override with -Dloadtest.<name>=... (./gradlew loadTest -Dloadtest.products=100000)
+final class LoadTestSettings {
+    static final int USERS = intProperty("users", 100_000);
+    static final int CATEGORIES = intProperty("categories", 50);
+    static final int PRODUCTS = intProperty("products", 1_000_000);
+    static final int ORDER_ITEMS = intProperty("orderItems", 10_000_000);
+    static final int ITEMS_PER_ORDER = intProperty("itemsPerOrder", 5);
+    static final int REVIEWS_PER_PRODUCT = intProperty("reviewsPerProduct", 1);
+    static final int SEED_CHUNK = intProperty("seedChunk", 500_000);
+
+    // concurrent virtual users and requests each of them sends per scenario
+    static final int CONCURRENCY = intProperty("concurrency", 32);
+    static final int REQUESTS_PER_USER = intProperty("requestsPerUser", 50);
+    static final int WARMUP_REQUESTS = intProperty("warmupRequests", 200);
+    static final int TIMEOUT_SECONDS = intProperty("timeoutSeconds", 60);
+    static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+
+    static final String PASSWORD = "load-test-password";
+
+    private LoadTestSettings() {
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty("loadtest." + name, String.valueOf(defaultValue)));
+    }
+}
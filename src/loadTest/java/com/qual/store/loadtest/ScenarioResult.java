@@ -0,0 +1,70 @@
+package com.qual.store.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// latencies of one scenario, percentiles are exact (all samples are kept)
+class ScenarioResult {
+    private final String name;
+    private final long[] latencies;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicInteger requestsWithQueryCount = new AtomicInteger();
+    private long wallNanos;
+
+    ScenarioResult(String name, int expectedRequests) {
+        this.name = name;
+        this.latencies = new long[expectedRequests];
+    }
+
+    void record(long latencyNanos, int status, String queryCountHeader) {
+        int index = count.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = latencyNanos;
+        }
+        if (status >= 500 || status == 0) {
+            errors.incrementAndGet();
+        }
+        if (queryCountHeader != null) {
+            queries.addAndGet(Long.parseLong(queryCountHeader));
+            requestsWithQueryCount.incrementAndGet();
+        }
+    }
+
+    void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    double errorRate() {
+        return count.get() == 0 ? 0 : (double) errors.get() / count.get();
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-28s %8s %7s %10s %10s %10s %10s %12s",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "queries/req");
+    }
+
+    String summary() {
+        int n = Math.min(count.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        double seconds = wallNanos / 1e9;
+        return String.format(Locale.ROOT, "%-28s %8d %7d %10.1f %10.2f %10.2f %10.2f %12s",
+                name, count.get(), errors.get(), seconds > 0 ? count.get() / seconds : 0,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), n == 0 ? 0 : sorted[n - 1] / 1e6,
+                requestsWithQueryCount.get() == 0
+                        ? "n/a"
+                        : String.format(Locale.ROOT, "%.1f", (double) queries.get() / requestsWithQueryCount.get()));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
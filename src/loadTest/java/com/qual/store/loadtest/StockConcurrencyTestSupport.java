@@ -0,0 +1,99 @@
+package com.qual.store.loadtest;
+
+import com.qual.store.exceptions.InsufficientStockException;
+import com.qual.store.model.OrderItem;
+import com.qual.store.model.Product;
+import com.qual.store.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// a flash sale of one product with UNITS units: many threads reserve single units at once, more than there are
+@Testcontainers
+abstract class StockConcurrencyTestSupport {
+    protected static final int THREADS = 64;
+    protected static final int ATTEMPTS_PER_THREAD = 4;
+    protected static final long UNITS = 100;
+    protected static final long PRODUCT_ID = 1;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    @Autowired
+    protected StockReservationService stockReservationService;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.update("delete from outbox_events");
+        jdbcTemplate.update("delete from order_items");
+        jdbcTemplate.update("delete from orders");
+        jdbcTemplate.update("delete from stock_journal");
+        jdbcTemplate.update("delete from products");
+        jdbcTemplate.update("delete from categories");
+        jdbcTemplate.update("delete from app_users");
+        jdbcTemplate.update("insert into categories (id, name, path) values (1, 'Category 1', '/1/')");
+        jdbcTemplate.update("""
+                insert into products (id, name, description, price, units_in_stock, discount_percentage,
+                                      create_time, update_time, category_id)
+                values (?, 'Hot product', 'Sold out in seconds', 9.99, ?, 0, now(), now(), 1)
+                """, PRODUCT_ID, UNITS);
+    }
+
+    // returns the number of granted reservations, anything but InsufficientStockException fails the test
+    protected int reserveConcurrently() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        stockReservationService.reserve(List.of(orderItem(1)));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return reserved.get();
+    }
+
+    protected long unitsInStock() {
+        return jdbcTemplate.queryForObject("select units_in_stock from products where id = ?", Long.class, PRODUCT_ID);
+    }
+
+    protected static OrderItem orderItem(int quantity) {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        return OrderItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .build();
+    }
+}
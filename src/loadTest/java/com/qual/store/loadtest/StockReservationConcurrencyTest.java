@@ -0,0 +1,115 @@
+package com.qual.store.loadtest;
+
+import com.qual.store.service.OrderItemService;
+import com.qual.store.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// many checkouts of one product at once: the stock must end at exactly zero, never below
+@SpringBootTest(properties = {
+        "store.rate-limit.enabled=false",
+        "logging.level.com.qual.store=WARN",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+class StockReservationConcurrencyTest extends StockConcurrencyTestSupport {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Test
+    public void concurrentReservationsNeverOversellTest() throws Exception {
+        assertEquals(UNITS, reserveConcurrently());
+        assertEquals(0L, unitsInStock());
+    }
+
+    @Test
+    public void releaseRestocksTest() {
+        stockReservationService.reserve(List.of(orderItem(30), orderItem(20)));
+        assertEquals(UNITS - 50, unitsInStock());
+
+        stockReservationService.release(List.of(orderItem(30), orderItem(20)));
+        assertEquals(UNITS, unitsInStock());
+    }
+
+    @Test
+    public void lineChangesOfPlacedOrderFollowTheReservationTest() {
+        placeOrderWithLineOf(10);
+        assertEquals(UNITS - 10, unitsInStock());
+
+        orderItemService.modifyQuantity(1L, 25);
+        assertEquals(UNITS - 25, unitsInStock());
+        orderItemService.modifyQuantity(1L, 5);
+        assertEquals(UNITS - 5, unitsInStock());
+
+        orderService.updateOrderStatus(1L, "CANCELLED");
+        assertEquals(UNITS, unitsInStock());
+    }
+
+    // each change waits for the order lock and only then reads the line, so the stock follows the last quantity
+    @Test
+    public void concurrentLineChangesKeepStockAndTotalInStepTest() throws Exception {
+        placeOrderWithLineOf(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int change = 0; change < 5; change++) {
+                    orderItemService.modifyQuantity(1L, 1 + (thread * 5 + change) % 20);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long quantity = jdbcTemplate.queryForObject("select quantity from order_items where id = 1", Long.class);
+        assertEquals(UNITS - quantity, unitsInStock());
+        assertEquals(quantity * 199,
+                jdbcTemplate.queryForObject("select subtotal_cents from orders where id = 1", Long.class));
+    }
+
+    // a CHECKOUT order with one line of the product, placed by an admin so its stock is reserved
+    private void placeOrderWithLineOf(int quantity) {
+        jdbcTemplate.update("insert into app_users (id, username, role) values (1, 'admin', 'ADMIN')");
+        jdbcTemplate.update("insert into orders (id, delivery_price, subtotal_cents, start_date, status, user_id) " +
+                "values (1, 0, ?, current_date, 'CHECKOUT', 1)", quantity * 199L);
+        jdbcTemplate.update("insert into order_items (id, quantity, unit_price_cents, product_id, order_id) " +
+                "values (1, ?, 199, ?, 1)", quantity, PRODUCT_ID);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+
+        orderService.updateOrderStatus(1L, "PLACED");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
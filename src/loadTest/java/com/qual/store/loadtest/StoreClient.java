@@ -0,0 +1,84 @@
+package com.qual.store.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static com.qual.store.loadtest.LoadTestSettings.TIMEOUT_SECONDS;
+
+// thin HttpClient wrapper, every call is timed into the given ScenarioResult
+class StoreClient {
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    StoreClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(null, "POST", "/auth/login?username=" + encode(username)
+                + "&password=" + encode(LoadTestSettings.PASSWORD), null);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("login failed for " + username + ": " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    HttpResponse<String> call(ScenarioResult result, String token, String method, String path) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(token, method, path, null);
+            if (result != null) {
+                result.record(System.nanoTime() - start, response.statusCode(),
+                        response.headers().firstValue(QUERY_COUNT_HEADER).orElse(null));
+            }
+            return response;
+        } catch (IOException e) {
+            if (result != null) {
+                result.record(System.nanoTime() - start, 0, null);
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    JsonNode json(HttpResponse<String> response) {
+        try {
+            return response == null || response.statusCode() >= 300 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<String> send(String token, String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
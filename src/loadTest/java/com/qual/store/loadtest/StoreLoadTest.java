@@ -0,0 +1,185 @@
+package com.qual.store.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.qual.store.loadtest.LoadTestSettings.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// ./gradlew loadTest, seeds the container once and runs the scenarios against the real http stack
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "store.query-budget.expose-header=true",
+        // fails the run when an entity does not match the migrated schema, startup in production skips the check
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "store.rate-limit.enabled=false",
+        "logging.level.com.qual.store=WARN"
+})
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StoreLoadTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=512MB", "-c", "max_connections=200",
+                    "-c", "synchronous_commit=off");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StoreClient client;
+
+    private String adminToken;
+
+    private final List<String> userTokens = new ArrayList<>();
+
+    private final List<ScenarioResult> results = new ArrayList<>();
+
+    @BeforeAll
+    public void setup() throws Exception {
+        new DatasetSeeder(jdbcTemplate).seed();
+        client = new StoreClient(port);
+        adminToken = client.login("user1");
+        for (int i = 0; i < CONCURRENCY; i++) {
+            userTokens.add(client.login("user" + (i + 2)));
+        }
+    }
+
+    @AfterAll
+    public void report() throws IOException {
+        StringBuilder report = new StringBuilder(String.format("users=%d products=%d orderItems=%d concurrency=%d%n",
+                USERS, PRODUCTS, ORDER_ITEMS, CONCURRENCY));
+        report.append(ScenarioResult.header()).append(System.lineSeparator());
+        results.forEach(result -> report.append(result.summary()).append(System.lineSeparator()));
+        System.out.println(report);
+
+        Path file = Path.of("build", "reports", "loadtest", "summary.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, report);
+    }
+
+    @Test
+    @Order(1)
+    public void browseTest() throws Exception {
+        run("browse products/display", REQUESTS_PER_USER, 1, (worker, result) ->
+                client.call(result, null, "GET", "/api/products/display?pageNumber=" + random(1000) + "&pageSize=20"));
+        run("browse products/{id}", REQUESTS_PER_USER, 1, (worker, result) ->
+                client.call(result, null, "GET", "/api/products/" + (random(PRODUCTS) + 1)));
+        run("browse products/category", Math.max(1, REQUESTS_PER_USER / 10), 1, (worker, result) ->
+                client.call(result, null, "GET", "/api/products/category?categoryId=" + (random(CATEGORIES) + 1)));
+    }
+
+    @Test
+    @Order(2)
+    public void searchTest() throws Exception {
+        run("search products/search", REQUESTS_PER_USER, 1, (worker, result) ->
+                client.call(result, null, "GET", "/api/products/search?pageSize=20&name="
+                        + StoreClient.encode("Product " + (random(PRODUCTS) + 1))));
+    }
+
+    @Test
+    @Order(3)
+    public void basketTest() throws Exception {
+        run("basket add + view", REQUESTS_PER_USER, 2, (worker, result) -> {
+            String token = userTokens.get(worker);
+            client.call(result, token, "POST", "/api/orders/" + (random(PRODUCTS) + 1) + "?quantity=1");
+            client.call(result, token, "GET", "/api/orders/me/basket");
+        });
+    }
+
+    @Test
+    @Order(4)
+    public void checkoutTest() throws Exception {
+        run("checkout add/me/CHECKOUT/PLACED", Math.max(1, REQUESTS_PER_USER / 10), 4, (worker, result) -> {
+            String token = userTokens.get(worker);
+            client.call(result, token, "POST", "/api/orders/" + (random(PRODUCTS) + 1) + "?quantity=1");
+            Long orderId = activeOrderId(client.json(client.call(result, token, "GET", "/api/orders/me")));
+            if (orderId != null) {
+                client.call(result, token, "PUT", "/api/orders/" + orderId + "?status=CHECKOUT");
+                client.call(result, token, "PUT", "/api/orders/" + orderId + "?status=PLACED");
+            }
+        });
+    }
+
+    @Test
+    @Order(5)
+    public void adminTest() throws Exception {
+        run("admin orders/display", REQUESTS_PER_USER, 1, (worker, result) ->
+                client.call(result, adminToken, "GET", "/api/orders/display?pageSize=20&pageNumber=" + random(1000)));
+        run("admin orders/search", Math.max(1, REQUESTS_PER_USER / 10), 1, (worker, result) ->
+                client.call(result, adminToken, "GET", "/api/orders/search?user=user" + (random(USERS) + 1)));
+    }
+
+    private void run(String name, int iterationsPerUser, int callsPerIteration, Step step) throws InterruptedException {
+        execute(Math.max(1, WARMUP_REQUESTS / CONCURRENCY), step, null);
+
+        ScenarioResult result = new ScenarioResult(name, CONCURRENCY * iterationsPerUser * callsPerIteration);
+        long start = System.nanoTime();
+        execute(iterationsPerUser, step, result);
+        result.setWallNanos(System.nanoTime() - start);
+        results.add(result);
+
+        System.out.println(ScenarioResult.header() + System.lineSeparator() + result.summary());
+        assertTrue(result.errorRate() <= MAX_ERROR_RATE, name + " error rate " + result.errorRate());
+    }
+
+    private void execute(int iterationsPerUser, Step step, ScenarioResult result) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        for (int worker = 0; worker < CONCURRENCY; worker++) {
+            int workerIndex = worker;
+            executor.execute(() -> {
+                for (int i = 0; i < iterationsPerUser; i++) {
+                    step.run(workerIndex, result);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(2, TimeUnit.HOURS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Long activeOrderId(JsonNode orders) {
+        if (orders == null) {
+            return null;
+        }
+        for (JsonNode order : orders) {
+            if ("ACTIVE".equals(order.path("status").asText())) {
+                return order.path("id").asLong();
+            }
+        }
+        return null;
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int worker, ScenarioResult result);
+    }
+}
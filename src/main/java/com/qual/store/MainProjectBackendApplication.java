@@ -2,12 +2,18 @@ package com.qual.store;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
+@EnableAsync
 public class MainProjectBackendApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(MainProjectBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(MainProjectBackendApplication.class);
+        // startup steps with their durations, served by /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,23 @@
+package com.qual.store.config;
+
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.utils.basket.BasketReaper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@ConditionalOnProperty(prefix = "store.basket-reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BasketReaperProperties.class)
+@EnableScheduling
+public class BasketReaperConfig {
+
+    @Bean
+    public BasketReaper basketReaper(BasketReaperProperties properties, OrderRepository orderRepository,
+                                     OrderItemRepository orderItemRepository) {
+        return new BasketReaper(properties, orderRepository, orderItemRepository);
+    }
+}
@@ -0,0 +1,27 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.basket-reaper")
+@Getter
+@Setter
+public class BasketReaperProperties {
+
+    private boolean enabled = true;
+
+    private long intervalMillis = 600000;
+
+    // ACTIVE orders not changed for this long are deleted with their lines
+    private long basketTtlHours = 720;
+
+    // order items without an order are deleted this long after they were created
+    private long orphanItemTtlMinutes = 60;
+
+    // rows per delete statement, each statement is its own transaction
+    private int chunkSize = 500;
+
+    // leaves the rest to the next run instead of keeping the database busy
+    private int maxChunksPerRun = 100;
+}
@@ -0,0 +1,38 @@
+package com.qual.store.config;
+
+import com.qual.store.model.Order;
+import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.basket.BasketWriter;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
+import com.qual.store.utils.validators.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// opt-in: store.basket-store.enabled=true serves the ACTIVE baskets from memory and writes them behind,
+// only valid while a single instance serves the basket endpoints
+@Configuration
+@ConditionalOnProperty(prefix = "store.basket-store", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(BasketStoreProperties.class)
+@EnableScheduling
+public class BasketStoreConfig {
+
+    @Bean
+    public BasketWriter basketWriter(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                                     AppUserRepository appUserRepository, ProductRepository productRepository,
+                                     OrderPriceCalculator orderPriceCalculator, Validator<Order> orderValidator) {
+        return new BasketWriter(orderRepository, orderItemRepository, appUserRepository, productRepository,
+                orderPriceCalculator, orderValidator);
+    }
+
+    @Bean
+    public BasketStore basketStore(BasketStoreProperties properties, BasketWriter basketWriter) {
+        return new BasketStore(properties, basketWriter);
+    }
+}
@@ -0,0 +1,22 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.basket-store")
+@Getter
+@Setter
+public class BasketStoreProperties {
+
+    private boolean enabled = false;
+
+    // baskets kept in memory, the least recently used ones are written out and dropped beyond it
+    private int maxBaskets = 10000;
+
+    // users hashed onto this many locks, rounded up to a power of two
+    private int lockStripes = 256;
+
+    // changed baskets are written to orders/order_items at most this often, every change in between is coalesced
+    private long flushDelayMillis = 200;
+}
@@ -0,0 +1,60 @@
+package com.qual.store.config;
+
+import com.qual.store.utils.datasource.ReplicaRoutingDataSource;
+import com.qual.store.utils.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// replaces boot's single pool once connections are routed. the primary pool is still configured by
+// spring.datasource.*, replicas (ReplicaRoutingConfig) are chosen first and workload pools (WorkloadPoolConfig)
+// for everything left on the primary. the lazy proxy delays the choice until the transaction is set up
+@Configuration
+@Conditional(DataSourceConfig.RoutingEnabled.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+                                 ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource) {
+        DataSource target = replicaRoutingDataSource.getIfAvailable(
+                () -> workloadRoutingDataSource.getIfAvailable(() -> primaryDataSource));
+        return new LazyConnectionDataSourceProxy(target);
+    }
+
+    static class RoutingEnabled extends AnyNestedCondition {
+
+        RoutingEnabled() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "store.replica", name = "enabled", havingValue = "true")
+        static class Replicas {
+        }
+
+        @ConditionalOnProperty(prefix = "store.workload-pools", name = "enabled", havingValue = "true")
+        static class WorkloadPools {
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.qual.store.config;
+
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.repository.StockJournalRepository;
+import com.qual.store.utils.inventory.HotStockInventory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// opt-in: store.hot-stock.enabled=true reserves the configured products against in-memory counters,
+// only valid while a single instance takes orders for them
+@Configuration
+@ConditionalOnProperty(prefix = "store.hot-stock", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(HotStockProperties.class)
+@EnableScheduling
+public class HotStockConfig {
+
+    @Bean
+    public HotStockInventory hotStockInventory(HotStockProperties properties, ProductRepository productRepository,
+                                               StockJournalRepository stockJournalRepository) {
+        return new HotStockInventory(properties, productRepository, stockJournalRepository);
+    }
+}
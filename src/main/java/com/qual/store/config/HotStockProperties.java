@@ -0,0 +1,26 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "store.hot-stock")
+@Getter
+@Setter
+public class HotStockProperties {
+
+    private boolean enabled = false;
+
+    // products whose stock is reserved in memory, every other product keeps the guarded sql decrement
+    private Set<Long> productIds = new HashSet<>();
+
+    private int stripes = Runtime.getRuntime().availableProcessors();
+
+    private long flushIntervalMillis = 1000;
+
+    // journal entries applied to products per flush transaction
+    private int flushBatchSize = 5000;
+}
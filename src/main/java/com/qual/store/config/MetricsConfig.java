@@ -0,0 +1,156 @@
+package com.qual.store.config;
+
+import com.qual.store.security.util.BoundedPasswordEncoder;
+import com.qual.store.security.util.RateLimitFilter;
+import com.qual.store.utils.archive.OrderArchiver;
+import com.qual.store.utils.basket.BasketReaper;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.datasource.ReplicaRoutingDataSource;
+import com.qual.store.utils.inventory.HotStockInventory;
+import com.qual.store.utils.outbox.OutboxDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// store specific meters, jvm/hikari/hibernate/http/repository metrics come from actuator auto-configuration
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(ObjectProvider<BoundedPasswordEncoder> passwordEncoder) {
+        return registry -> passwordEncoder.ifAvailable(encoder -> {
+            Gauge.builder("store.password.hashing.queue", encoder, BoundedPasswordEncoder::getQueueDepth)
+                    .description("password hashing tasks waiting for a thread")
+                    .register(registry);
+            Gauge.builder("store.password.hashing.active", encoder, BoundedPasswordEncoder::getActiveCount)
+                    .description("password hashing tasks running")
+                    .register(registry);
+            FunctionCounter.builder("store.password.hashing.rejected", encoder, BoundedPasswordEncoder::getRejectedCount)
+                    .description("password hashing tasks rejected or timed out")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(ObjectProvider<RateLimitFilter> rateLimitFilter) {
+        return registry -> rateLimitFilter.ifAvailable(filter -> {
+            Gauge.builder("store.rate.limit.in.flight", filter, RateLimitFilter::getInFlight)
+                    .description("requests currently admitted")
+                    .register(registry);
+            Gauge.builder("store.rate.limit.clients", filter, RateLimitFilter::getTrackedClients)
+                    .description("clients with a token bucket")
+                    .register(registry);
+            FunctionCounter.builder("store.rate.limit.rejected", filter, RateLimitFilter::getRejectedCount)
+                    .description("requests answered with 429")
+                    .register(registry);
+            FunctionCounter.builder("store.rate.limit.shed", filter, RateLimitFilter::getShedCount)
+                    .description("requests answered with 503 by admission control")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder virtualThreadMetrics(ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        return registry -> pinningMonitor.ifAvailable(monitor ->
+                FunctionCounter.builder("store.virtual.threads.pinned", monitor, VirtualThreadPinningMonitor::getPinnedCount)
+                        .description("virtual threads pinned longer than the configured threshold")
+                        .register(registry));
+    }
+
+    @Bean
+    public MeterBinder hotStockMetrics(ObjectProvider<HotStockInventory> hotStockInventory) {
+        return registry -> hotStockInventory.ifAvailable(inventory -> {
+            Gauge.builder("store.hot.stock.products", inventory, HotStockInventory::getTrackedProducts)
+                    .description("hot products with an in-memory counter")
+                    .register(registry);
+            FunctionCounter.builder("store.hot.stock.flushed", inventory, HotStockInventory::getFlushedEntries)
+                    .description("stock journal entries applied to products")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder basketStoreMetrics(ObjectProvider<BasketStore> basketStore) {
+        return registry -> basketStore.ifAvailable(store -> {
+            Gauge.builder("store.basket.store.baskets", store, BasketStore::getCachedBaskets)
+                    .description("baskets held in memory")
+                    .register(registry);
+            Gauge.builder("store.basket.store.dirty", store, BasketStore::getDirtyBaskets)
+                    .description("baskets with changes not written yet")
+                    .register(registry);
+            FunctionCounter.builder("store.basket.store.changes", store, BasketStore::getChanges)
+                    .description("basket changes made in memory")
+                    .register(registry);
+            FunctionCounter.builder("store.basket.store.writes", store, BasketStore::getWrites)
+                    .description("baskets written to orders and order_items")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder basketReaperMetrics(ObjectProvider<BasketReaper> basketReaper) {
+        return registry -> basketReaper.ifAvailable(reaper -> {
+            FunctionCounter.builder("store.basket.reaper.baskets", reaper, BasketReaper::getReapedBaskets)
+                    .description("abandoned baskets deleted")
+                    .register(registry);
+            FunctionCounter.builder("store.basket.reaper.order.items", reaper, BasketReaper::getReapedOrderItems)
+                    .description("order items deleted because they never got an order")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder orderArchiveMetrics(ObjectProvider<OrderArchiver> orderArchiver) {
+        return registry -> orderArchiver.ifAvailable(archiver ->
+                FunctionCounter.builder("store.order.archive.orders", archiver, OrderArchiver::getArchivedOrders)
+                        .description("finished orders moved to the archive tables")
+                        .register(registry));
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.ifAvailable(dataSource -> {
+            FunctionCounter.builder("store.datasource.routes", dataSource, ReplicaRoutingDataSource::getPrimaryRoutes)
+                    .description("connections routed to the primary")
+                    .tag("route", "primary")
+                    .register(registry);
+            FunctionCounter.builder("store.datasource.routes", dataSource, ReplicaRoutingDataSource::getReplicaRoutes)
+                    .description("read-only connections routed to a replica")
+                    .tag("route", "replica")
+                    .register(registry);
+            FunctionCounter.builder("store.datasource.routes", dataSource, ReplicaRoutingDataSource::getReadYourWritesRoutes)
+                    .description("read-only connections kept on the primary because their user just wrote")
+                    .tag("route", "read-your-writes")
+                    .register(registry);
+            Gauge.builder("store.datasource.replicas.usable", dataSource, routing -> routing.getUsableReplicas().size())
+                    .description("replicas within store.replica.max-lag-millis")
+                    .register(registry);
+            for (String replica : dataSource.getReplicaNames()) {
+                Gauge.builder("store.datasource.replica.lag", dataSource, routing -> routing.getLagMillis(replica))
+                        .description("replay lag of the replica in milliseconds, Long.MAX_VALUE while unreachable")
+                        .tag("pool", replica)
+                        .baseUnit("milliseconds")
+                        .register(registry);
+            }
+        });
+    }
+
+    @Bean
+    public MeterBinder outboxMetrics(ObjectProvider<OutboxDispatcher> outboxDispatcher) {
+        return registry -> outboxDispatcher.ifAvailable(dispatcher -> {
+            FunctionCounter.builder("store.outbox.delivered", dispatcher, OutboxDispatcher::getDelivered)
+                    .description("outbox events handed to their listeners")
+                    .register(registry);
+            FunctionCounter.builder("store.outbox.failed", dispatcher, OutboxDispatcher::getFailed)
+                    .description("outbox deliveries that failed and will be retried")
+                    .register(registry);
+            // one count query per scrape
+            Gauge.builder("store.outbox.dead", dispatcher, OutboxDispatcher::getDead)
+                    .description("outbox events out of attempts, each blocks the later events of its aggregate")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.qual.store.config;
+
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.utils.archive.OrderArchiver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@ConditionalOnProperty(prefix = "store.order-archive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(OrderArchiveProperties.class)
+@EnableScheduling
+public class OrderArchiveConfig {
+
+    @Bean
+    public OrderArchiver orderArchiver(OrderArchiveProperties properties, OrderRepository orderRepository) {
+        return new OrderArchiver(properties, orderRepository);
+    }
+}
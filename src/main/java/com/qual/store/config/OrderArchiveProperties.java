@@ -0,0 +1,24 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.order-archive")
+@Getter
+@Setter
+public class OrderArchiveProperties {
+
+    private boolean enabled = false;
+
+    private long intervalMillis = 3600000;
+
+    // DELIVERED and CANCELLED orders not changed for this long leave orders and order_items
+    private long archiveAfterDays = 180;
+
+    // orders per move statement, each statement is its own transaction
+    private int chunkSize = 500;
+
+    // leaves the rest to the next run instead of keeping the database busy
+    private int maxChunksPerRun = 100;
+}
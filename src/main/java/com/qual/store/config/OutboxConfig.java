@@ -0,0 +1,23 @@
+package com.qual.store.config;
+
+import com.qual.store.repository.OutboxEventRepository;
+import com.qual.store.utils.outbox.OutboxDelivery;
+import com.qual.store.utils.outbox.OutboxDispatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@ConditionalOnProperty(prefix = "store.outbox", name = "dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OutboxProperties.class)
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    public OutboxDispatcher outboxDispatcher(OutboxProperties properties, OutboxEventRepository outboxEventRepository,
+                                             OutboxDelivery outboxDelivery) {
+        return new OutboxDispatcher(properties, outboxEventRepository, outboxDelivery);
+    }
+}
@@ -0,0 +1,25 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+
+    // events are always written, this only turns off the dispatcher of this instance
+    private boolean dispatcherEnabled = true;
+
+    private long pollIntervalMillis = 500;
+
+    // aggregates served per query, each of their events is delivered in its own transaction
+    private int batchSize = 100;
+
+    // after this many failed deliveries an event stays in the table and blocks its aggregate
+    private int maxAttempts = 10;
+
+    // doubled after every failed delivery
+    private long retryDelayMillis = 1000;
+}
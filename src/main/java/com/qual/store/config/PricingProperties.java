@@ -0,0 +1,20 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.pricing")
+@Getter
+@Setter
+public class PricingProperties {
+
+    // delivery fee of a non-empty order
+    private long deliveryCents = 0;
+
+    // orders at least this much after discounts ship for free, 0 disables free delivery
+    private long freeDeliveryFromCents = 0;
+
+    // orders recomputed per transaction by OrderTotalsRepairJob
+    private int repairChunkSize = 1000;
+}
@@ -0,0 +1,25 @@
+package com.qual.store.config;
+
+import com.qual.store.logger.QueryCountingInterceptor;
+import com.qual.store.logger.QueryCountingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+
+    // the hooks only count while a request (or a test) has opened a QueryCounter scope
+    @Bean
+    @ConditionalOnProperty(prefix = "store.query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            hibernateProperties.put(AvailableSettings.INTERCEPTOR, new QueryCountingInterceptor());
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.query-budget")
+@Getter
+@Setter
+public class QueryBudgetProperties {
+
+    // count sql statements and entity loads per http request
+    private boolean enabled = true;
+
+    // add X-Query-Count / X-Entity-Load-Count to responses, meant for dev and test environments
+    private boolean exposeHeader = false;
+
+    // the same statement shape this many times in one request is reported as a possible n+1
+    private int repeatedStatementThreshold = 5;
+
+    // requests issuing more statements than this are logged
+    private int maxStatements = 50;
+}
@@ -0,0 +1,24 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.reactive")
+@Getter
+@Setter
+public class ReactiveCatalogProperties {
+
+    private boolean enabled = false;
+
+    // e.g. r2dbc:postgresql://localhost:5432/shop
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int initialPoolSize = 2;
+
+    private int maxPoolSize = 10;
+}
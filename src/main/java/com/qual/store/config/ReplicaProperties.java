@@ -0,0 +1,34 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "store.replica")
+@Getter
+@Setter
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    // jdbc urls of the streaming replicas, read-only transactions are spread over them
+    private List<String> urls = new ArrayList<>();
+
+    // default to spring.datasource.username and password
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    // a user's read-only transactions stay on the primary this long after one of their transactions wrote
+    private long readYourWritesMillis = 5000;
+
+    // replicas replaying further behind than this get no reads until they catch up
+    private long maxLagMillis = 5000;
+
+    private long lagCheckIntervalMillis = 2000;
+}
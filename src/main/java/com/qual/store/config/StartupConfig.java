@@ -0,0 +1,34 @@
+package com.qual.store.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+// the fast-startup profile (application-fast-startup.properties) creates beans lazily. the store's controllers and
+// everything they use stay eager so the first request doesn't pay for them, springdoc and the auto-configured
+// beans nothing asks for are only created on first use. @Scheduled beans are kept eager by boot itself
+@Configuration
+public class StartupConfig {
+
+    private static final String STORE_PACKAGE = "com.qual.store.";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.main", name = "lazy-initialization", havingValue = "true")
+    public static LazyInitializationExcludeFilter storeControllersExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType.getName().startsWith(STORE_PACKAGE)
+                && AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+
+    // the CDS training run of the Dockerfile: the jvm writes the archive of every class loaded up to here on exit
+    @Bean
+    @ConditionalOnProperty(prefix = "store.startup", name = "exit-when-started", havingValue = "true")
+    public ApplicationListener<ApplicationStartedEvent> exitWhenStarted() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
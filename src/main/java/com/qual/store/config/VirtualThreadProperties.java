@@ -0,0 +1,16 @@
+package com.qual.store.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.threads.virtual")
+@Getter
+@Setter
+public class VirtualThreadProperties {
+
+    private boolean enabled = false;
+
+    // pinned sections shorter than this are not reported
+    private long pinningThresholdMillis = 20;
+}
@@ -0,0 +1,53 @@
+package com.qual.store.config;
+
+import com.qual.store.utils.datasource.WorkloadAspect;
+import com.qual.store.utils.datasource.WorkloadPool;
+import com.qual.store.utils.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// one pool per @Workload next to the primary pool, all on the primary database. each starts as a copy of the bound
+// spring.datasource.hikari.* settings and only overrides its size and timeouts from store.workload-pools.*. the
+// pools are named catalog, checkout and reports in the hikaricp.* metrics
+@Configuration
+@ConditionalOnProperty(prefix = "store.workload-pools", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WorkloadPoolProperties.class)
+public class WorkloadPoolConfig {
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(WorkloadPoolProperties properties,
+                                                               HikariDataSource primaryDataSource,
+                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<WorkloadPool, DataSource> pools = new EnumMap<>(WorkloadPool.class);
+        for (WorkloadPool workloadPool : WorkloadPool.values()) {
+            WorkloadPoolProperties.Pool settings = properties.poolOf(workloadPool);
+            HikariDataSource pool = new HikariDataSource();
+            primaryDataSource.copyStateTo(pool);
+            pool.setPoolName(workloadPool.name().toLowerCase(Locale.ROOT));
+            pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+            pool.setMinimumIdle(settings.getMinimumIdle());
+            pool.setConnectionTimeout(settings.getConnectionTimeoutMillis());
+            pool.setLeakDetectionThreshold(settings.getLeakDetectionThresholdMillis());
+            meterRegistry.ifAvailable(registry ->
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.put(workloadPool, pool);
+        }
+        return new WorkloadRoutingDataSource(primaryDataSource, pools);
+    }
+
+    @Bean
+    public WorkloadAspect workloadAspect() {
+        return new WorkloadAspect();
+    }
+}
@@ -0,0 +1,48 @@
+package com.qual.store.config;
+
+import com.qual.store.utils.datasource.WorkloadPool;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.workload-pools")
+@Getter
+@Setter
+public class WorkloadPoolProperties {
+
+    private boolean enabled = false;
+
+    private Pool catalog = new Pool(10, 2, 1000, 5000);
+
+    private Pool checkout = new Pool(10, 2, 3000, 10000);
+
+    // few connections, but they may be held for long
+    private Pool reports = new Pool(3, 0, 30000, 120000);
+
+    public Pool poolOf(WorkloadPool workloadPool) {
+        return switch (workloadPool) {
+            case CATALOG -> catalog;
+            case CHECKOUT -> checkout;
+            case REPORTS -> reports;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        private int maximumPoolSize;
+
+        private int minimumIdle;
+
+        // how long a request waits for a free connection before it fails
+        private long connectionTimeoutMillis;
+
+        // connections held longer than this are logged with the stack trace that took them, 0 disables it
+        private long leakDetectionThresholdMillis;
+    }
+}
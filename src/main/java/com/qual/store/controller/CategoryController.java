@@ -3,9 +3,12 @@ package com.qual.store.controller;
 import com.github.javafaker.Faker;
 import com.qual.store.converter.CategoryConverter;
 import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.CategoryTreeDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
 import com.qual.store.logger.Log;
 import com.qual.store.model.Category;
 import com.qual.store.service.CategoryService;
+import com.qual.store.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,15 +25,37 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final CategoryConverter categoryConverter;
+    private final ProductService productService;
 
     @GetMapping()
     @Log
     public List<CategoryDto> getAllCategories() {
-        return categoryService.getAllCategories().stream()
-                .map(categoryConverter::convertModelToDto)
+        return categoryService.getCategorySummaries().stream()
+                .map(categoryConverter::convertSummaryToDto)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/tree")
+    @Log
+    public List<CategoryTreeDto> getCategoryTree() {
+        return categoryService.getCategoryTree().getRoots().stream()
+                .map(categoryConverter::convertTreeNodeToDto)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/{categoryId}/products")
+    @Log
+    public ResponseEntity<PaginatedProductResponse> getProductsOfCategory(@PathVariable("categoryId") Long categoryId,
+                                                                          @RequestParam(defaultValue = "0") Integer pageNumber,
+                                                                          @RequestParam(defaultValue = "10") Integer pageSize,
+                                                                          @RequestParam(defaultValue = "id") String sortBy,
+                                                                          @RequestParam(defaultValue = "false") boolean includeSubcategories) {
+        if (includeSubcategories) {
+            return ResponseEntity.ok(productService.getProductsInCategorySubtree(categoryId, pageNumber, pageSize, sortBy));
+        }
+        return ResponseEntity.ok(productService.getProductsByCategory(categoryId, pageNumber, pageSize, sortBy));
+    }
+
     @GetMapping("/{categoryId}")
     @Log
     public ResponseEntity<CategoryDto> getCategoryById(@PathVariable("categoryId") Long categoryId) {
@@ -41,15 +66,25 @@ public class CategoryController {
 
     @PostMapping
     @Log
-    public ResponseEntity<CategoryDto> addCategory(@RequestParam("categoryName") String categoryName) {
+    public ResponseEntity<CategoryDto> addCategory(@RequestParam("categoryName") String categoryName,
+                                                   @RequestParam(value = "parentId", required = false) Long parentId) {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(categoryConverter.convertModelToDto(
-                                categoryService.saveCategory(categoryName)
+                                categoryService.saveCategory(categoryName, parentId)
                         )
                 );
     }
 
+    @PutMapping("/{categoryId}/parent")
+    @Log
+    public ResponseEntity<CategoryDto> moveCategory(@PathVariable Long categoryId,
+                                                    @RequestParam(value = "parentId", required = false) Long parentId) {
+        return ResponseEntity.ok(categoryConverter.convertModelToDto(
+                categoryService.moveCategory(categoryId, parentId)
+        ));
+    }
+
     @PutMapping("/{categoryId}")
     @Log
     public ResponseEntity<CategoryDto> updateCategory(@PathVariable Long categoryId, @RequestBody Category category) {
@@ -74,6 +74,15 @@ public class ExceptionHandlingController {
         return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(DeleteCategoryException.class)
+    public ResponseEntity<Object> handlerDeleteCategoryException(DeleteCategoryException exception) {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("error message", exception.getLocalizedMessage());
+
+        return new ResponseEntity<>(responseBody, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ImageModelException.class)
     public ResponseEntity<Object> handlerImageModelException(ImageModelException exception) {
         Map<String, Object> responseBody = new HashMap<>();
@@ -121,6 +130,15 @@ public class ExceptionHandlingController {
         return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Object> handlerInsufficientStockException(InsufficientStockException exception) {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("error message", exception.getLocalizedMessage());
+
+        return new ResponseEntity<>(responseBody, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InvalidOrderStatusException.class)
     public ResponseEntity<Object> handlerInvalidOrderStatusException(InvalidOrderStatusException exception) {
         Map<String, Object> responseBody = new HashMap<>();
@@ -130,6 +148,17 @@ public class ExceptionHandlingController {
         return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Object> handlerPasswordHashingRejectedException(PasswordHashingRejectedException exception) {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("error message", exception.getLocalizedMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(responseBody);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> handlerConstraintViolationException(ConstraintViolationException exception) {
         Map<String, Object> responseBody = new HashMap<>();
@@ -7,11 +7,11 @@ import com.qual.store.dto.OrderDto;
 import com.qual.store.dto.OrderItemDto;
 import com.qual.store.dto.ProductDto;
 import com.qual.store.dto.lazyDto.OrderWithOrderItemDto;
+import com.qual.store.dto.paginated.OrderSearchResponse;
 import com.qual.store.dto.paginated.PaginatedOrderResponse;
+import com.qual.store.dto.request.OrderSearchRequest;
 import com.qual.store.logger.Log;
-import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
-import com.qual.store.service.OrderItemService;
 import com.qual.store.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -29,7 +29,6 @@ import java.util.stream.Collectors;
 public class OrderController {
 
     private final OrderService orderService;
-    private final OrderItemService orderItemService;
     private final OrderConverter orderConverter;
     private final OrderWithOrderItemsConverter orderWithOrderItemsConverter;
     private final OrderItemConverter orderItemConverter;
@@ -56,14 +55,21 @@ public class OrderController {
     @Log
     public ResponseEntity<?> addToOrder(@PathVariable("productId") Long productId, @RequestParam Integer quantity) {
 
-        OrderItem orderItem = orderItemService.addOrderItem(productId, quantity);
-        Order order = orderService.addToOrder(orderItem.getId());
-        orderItem.setOrder(order);
+        OrderItem orderItem = orderService.addToBasket(productId, quantity);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(orderItemConverter.convertModelToDto(orderItem)
                 );
     }
 
+    @PostMapping("/totals/recompute")
+    @Log
+    public ResponseEntity<String> recomputeTotals() {
+        if (!orderService.recomputeTotals()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("order totals are already being recomputed");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("recomputing order totals");
+    }
+
     @DeleteMapping(value = "/{id}")
     @Log
     public ResponseEntity<?> deleteOrderById(@PathVariable("id") Long id) {
@@ -85,10 +91,8 @@ public class OrderController {
 
     @GetMapping(value = "/me")
     @Log
-    public List<OrderDto> getAllOrdersByUsername() {
-        return orderService.getAllOrdersByUser().stream()
-                .map(orderConverter::convertModelToDto)
-                .collect(Collectors.toList());
+    public List<OrderDto> getAllOrdersByUsername(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        return orderService.getAllOrdersByUser(includeArchived);
     }
 
     @GetMapping(value = "/me/lazy")
@@ -116,7 +120,7 @@ public class OrderController {
 
     @GetMapping("/search")
     @Log
-    public ResponseEntity<List<OrderDto>> searchOrdersByUsername(@RequestParam("user") String username) {
-        return ResponseEntity.ok(orderService.searchOrdersByUsername(username));
+    public ResponseEntity<OrderSearchResponse> searchOrders(OrderSearchRequest request) {
+        return ResponseEntity.ok(orderService.searchOrders(request));
     }
 }
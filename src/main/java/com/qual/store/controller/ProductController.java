@@ -129,8 +129,12 @@ public class ProductController {
 
     @GetMapping("/category")
     @Log
-    public List<ProductDto> getProductsByCategory(@RequestParam Long categoryId) {
-        return productService.findProductsByCategory(categoryId).stream()
+    public List<ProductDto> getProductsByCategory(@RequestParam Long categoryId,
+                                                  @RequestParam(defaultValue = "false") boolean includeSubcategories) {
+        List<Product> products = includeSubcategories
+                ? productService.findProductsInCategorySubtree(categoryId)
+                : productService.findProductsByCategory(categoryId);
+        return products.stream()
                 .map(productConverter::convertModelToDto)
                 .collect(Collectors.toList());
     }
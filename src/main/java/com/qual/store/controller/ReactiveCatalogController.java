@@ -0,0 +1,45 @@
+package com.qual.store.controller;
+
+import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.service.ReactiveCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// read-only catalog served from r2dbc; flux results are streamed when the client accepts application/x-ndjson
+@RestController
+@RequestMapping(value = "/api/reactive")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+@ConditionalOnProperty(prefix = "store.reactive", name = "enabled", havingValue = "true")
+public class ReactiveCatalogController {
+
+    private final ReactiveCatalogService reactiveCatalogService;
+
+    @GetMapping("/products/display")
+    public Mono<PaginatedProductResponse> getProducts(@RequestParam(defaultValue = "0") Integer pageNumber,
+                                                      @RequestParam(defaultValue = "10") Integer pageSize,
+                                                      @RequestParam(defaultValue = "id") String sortBy) {
+        return reactiveCatalogService.getProducts(pageNumber, pageSize, sortBy);
+    }
+
+    @GetMapping(value = "/products", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ProductDto> streamProducts() {
+        return reactiveCatalogService.streamProducts();
+    }
+
+    @GetMapping("/products/{productId}")
+    public Mono<ProductDto> getProductById(@PathVariable Long productId) {
+        return reactiveCatalogService.getProductById(productId);
+    }
+
+    @GetMapping(value = "/categories", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<CategoryDto> getAllCategories() {
+        return reactiveCatalogService.getAllCategories();
+    }
+}
@@ -0,0 +1,77 @@
+package com.qual.store.converter;
+
+import com.qual.store.dto.OrderDto;
+import com.qual.store.model.AppUser;
+import com.qual.store.model.ArchivedOrder;
+import com.qual.store.model.ArchivedOrderItem;
+import com.qual.store.model.Product;
+import com.qual.store.model.base.BaseEntity;
+import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// archived orders are read-only, so there is no dto to model direction. they only keep the user and product ids,
+// the users and products of a whole list are loaded in one query each, names are null once they are deleted
+@Component
+@RequiredArgsConstructor
+public class ArchivedOrderConverter {
+
+    private final AppUserRepository appUserRepository;
+
+    private final ProductRepository productRepository;
+
+    public OrderDto convertModelToDto(ArchivedOrder order) {
+        return convertModelsToDtos(List.of(order)).get(0);
+    }
+
+    public List<OrderDto> convertModelsToDtos(List<ArchivedOrder> orders) {
+        Map<Long, AppUser> users = appUserRepository.findAllById(orders.stream()
+                        .map(ArchivedOrder::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(orders.stream()
+                        .flatMap(order -> order.getOrderItems().stream())
+                        .map(ArchivedOrderItem::getProductId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+        return orders.stream()
+                .map(order -> convert(order, users, products))
+                .toList();
+    }
+
+    private OrderDto convert(ArchivedOrder order, Map<Long, AppUser> users, Map<Long, Product> products) {
+        AppUser user = order.getUserId() == null ? null : users.get(order.getUserId());
+        OrderDto orderDto = OrderDto.builder()
+                .deliveryPrice(order.getDeliveryPrice())
+                .subtotalCents(order.getSubtotalCents())
+                .discountCents(order.getDiscountCents())
+                .deliveryCents(order.getDeliveryCents())
+                .totalCents(order.getTotalCents())
+                .startDate(order.getStartDate())
+                .deliveryDate(order.getDeliveryDate())
+                .status(order.getStatus().name())
+                .userId(order.getUserId())
+                .userName(user == null ? null : user.getFirstName() + " " + user.getLastName())
+                .userEmail(user == null ? null : user.getEmail())
+                .orderItems(order.getOrderItems().stream().map(BaseEntity::getId).collect(Collectors.toList()))
+                .productNames(order.getOrderItems().stream()
+                        .map(orderItem -> {
+                            Product product = orderItem.getProductId() == null ? null
+                                    : products.get(orderItem.getProductId());
+                            return product == null ? null : product.getName();
+                        })
+                        .collect(Collectors.toList()))
+                .build();
+        orderDto.setId(order.getId());
+        return orderDto;
+    }
+}
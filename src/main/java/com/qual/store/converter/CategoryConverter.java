@@ -2,10 +2,14 @@ package com.qual.store.converter;
 
 import com.qual.store.converter.base.BaseConverter;
 import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.CategoryTreeDto;
+import com.qual.store.dto.projection.CategorySummary;
 import com.qual.store.model.base.BaseEntity;
 import com.qual.store.model.Category;
 import com.qual.store.repository.ProductRepository;
+import com.qual.store.utils.categories.CategoryTree;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 
 import java.util.stream.Collectors;
@@ -27,9 +31,31 @@ public class CategoryConverter extends BaseConverter<Category, CategoryDto> {
     public CategoryDto convertModelToDto(Category category) {
         CategoryDto categoryDto = CategoryDto.builder()
                 .name(category.getName())
-                .productIds(category.getProducts().stream().map(BaseEntity::getId).collect(Collectors.toList()))
                 .build();
+        // products are only listed when they were fetched, saved or updated categories come without them
+        if (category.getProducts() != null && Hibernate.isInitialized(category.getProducts())) {
+            categoryDto.setProductIds(category.getProducts().stream().map(BaseEntity::getId).collect(Collectors.toList()));
+            categoryDto.setProductCount((long) category.getProducts().size());
+        }
         categoryDto.setId(category.getId());
         return categoryDto;
     }
+
+    public CategoryDto convertSummaryToDto(CategorySummary categorySummary) {
+        CategoryDto categoryDto = CategoryDto.builder()
+                .name(categorySummary.getName())
+                .productCount(categorySummary.getProductCount())
+                .build();
+        categoryDto.setId(categorySummary.getId());
+        return categoryDto;
+    }
+
+    public CategoryTreeDto convertTreeNodeToDto(CategoryTree.Node node) {
+        return CategoryTreeDto.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .path(node.getPath())
+                .children(node.getChildren().stream().map(this::convertTreeNodeToDto).toList())
+                .build();
+    }
 }
@@ -24,6 +24,9 @@ public class OrderConverter extends BaseConverter<Order, OrderDto> {
     public Order convertDtoToModel(OrderDto dto) {
         Order model = Order.builder()
                 .deliveryPrice(dto.getDeliveryPrice())
+                .subtotalCents(dto.getSubtotalCents())
+                .discountCents(dto.getDiscountCents())
+                .deliveryCents(dto.getDeliveryCents())
                 .startDate(dto.getStartDate())
                 .deliveryDate(dto.getDeliveryDate())
                 .status(OrderStatus.valueOf(dto.getStatus()))
@@ -38,6 +41,10 @@ public class OrderConverter extends BaseConverter<Order, OrderDto> {
     public OrderDto convertModelToDto(Order order) {
         OrderDto orderDto = OrderDto.builder()
                 .deliveryPrice(order.getDeliveryPrice())
+                .subtotalCents(order.getSubtotalCents())
+                .discountCents(order.getDiscountCents())
+                .deliveryCents(order.getDeliveryCents())
+                .totalCents(order.getTotalCents())
                 .startDate(order.getStartDate())
                 .deliveryDate(order.getDeliveryDate())
                 .status(order.getStatus().name())
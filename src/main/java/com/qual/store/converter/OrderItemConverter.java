@@ -2,9 +2,8 @@ package com.qual.store.converter;
 
 import com.qual.store.converter.base.BaseConverter;
 import com.qual.store.dto.OrderItemDto;
-import com.qual.store.model.ImageModel;
 import com.qual.store.model.OrderItem;
-import com.qual.store.model.Product;
+import com.qual.store.repository.ImageRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.service.OrderService;
@@ -21,6 +20,8 @@ public class OrderItemConverter extends BaseConverter<OrderItem, OrderItemDto> {
 
     private final OrderRepository orderRepository;
 
+    private final ImageRepository imageRepository;
+
     @Override
     public OrderItem convertDtoToModel(OrderItemDto dto) {
         OrderItem orderItem = new OrderItem();
@@ -46,9 +47,9 @@ public class OrderItemConverter extends BaseConverter<OrderItem, OrderItemDto> {
         if (orderItem.getOrder() != null) {
             orderItemDto.setOrderId(orderItem.getOrder().getId());
         }
-        productRepository.findAllWithCategoryAndReviewsAndImages().stream()
-                .filter(pr -> pr.getId().equals(orderItem.getProduct().getId()))
-                .findFirst().ifPresent(product -> orderItemDto.setImageName(product.getImages().stream().map(ImageModel::getName).findFirst().orElse(null)));
+        orderItemDto.setImageName(imageRepository.findNamesByProductId(orderItem.getProduct().getId()).stream()
+                .findFirst()
+                .orElse(null));
         orderItemDto.setId(orderItem.getId());
         return orderItemDto;
     }
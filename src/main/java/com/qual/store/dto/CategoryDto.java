@@ -14,6 +14,7 @@ import java.util.Objects;
 public class CategoryDto extends BaseDto implements Serializable {
     private String name;
     private List<Long> productIds;
+    private Long productCount;
 
     @Override
     public boolean equals(Object o) {
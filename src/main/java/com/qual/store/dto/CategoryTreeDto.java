@@ -0,0 +1,16 @@
+package com.qual.store.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CategoryTreeDto {
+    private Long id;
+    private String name;
+    private String path;
+    private List<CategoryTreeDto> children;
+}
@@ -14,6 +14,10 @@ import java.util.List;
 @Builder
 public class OrderDto extends BaseDto implements Serializable {
     private double deliveryPrice;
+    private long subtotalCents;
+    private long discountCents;
+    private long deliveryCents;
+    private long totalCents;
     private LocalDate startDate;
     private LocalDate deliveryDate;
     private String status;
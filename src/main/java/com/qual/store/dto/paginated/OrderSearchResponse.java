@@ -0,0 +1,18 @@
+package com.qual.store.dto.paginated;
+
+import com.qual.store.dto.OrderDto;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class OrderSearchResponse {
+
+    // newest first
+    private List<OrderDto> orders;
+
+    // pass as cursor for the next page, null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.qual.store.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// category row with its product count, built by CategoryRepository.findAllSummaries
+@Getter
+@AllArgsConstructor
+public class CategorySummary {
+    private Long id;
+    private String name;
+    private Long productCount;
+}
@@ -0,0 +1,14 @@
+package com.qual.store.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// one category without its products, the rows CategoryTree is built from
+@Getter
+@AllArgsConstructor
+public class CategoryTreeRow {
+    private Long id;
+    private String name;
+    private Long parentId;
+    private String path;
+}
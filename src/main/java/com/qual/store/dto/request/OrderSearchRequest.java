@@ -0,0 +1,38 @@
+package com.qual.store.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// every criterion is optional, the ones given are combined with and
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderSearchRequest {
+
+    // username prefix
+    private String user;
+
+    private String status;
+
+    // start date range, both ends included
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private Long minTotalCents;
+
+    private Long maxTotalCents;
+
+    // nextCursor of the previous page, empty for the first page
+    private Long cursor;
+
+    private Integer size;
+}
@@ -0,0 +1,25 @@
+package com.qual.store.events;
+
+import com.qual.store.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+    private Long orderId;
+
+    private Long userId;
+
+    private OrderStatus previousStatus;
+
+    private OrderStatus status;
+
+    // product id to the units of the order
+    private Map<Long, Integer> quantities;
+}
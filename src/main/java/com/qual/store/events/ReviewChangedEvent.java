@@ -0,0 +1,16 @@
+package com.qual.store.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// a review of the product was added, edited or deleted
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewChangedEvent {
+
+    private Long productId;
+
+    private Long reviewId;
+}
@@ -0,0 +1,45 @@
+package com.qual.store.events;
+
+import com.qual.store.model.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// sales counters fed from the outbox, so checkout requests do not wait for them
+@Component
+public class SalesMetricsListener {
+
+    private final MeterRegistry registry;
+    private final Counter reviewChanges;
+
+    public SalesMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+        this.reviewChanges = Counter.builder("store.reviews.changes")
+                .description("reviews added, edited or deleted")
+                .register(registry);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatus status = event.getStatus();
+        Counter.builder("store.orders.status.changes")
+                .description("orders moved into a status")
+                .tag("status", status.name())
+                .register(registry)
+                .increment();
+        if (status == OrderStatus.PLACED || status == OrderStatus.CANCELLED) {
+            int units = event.getQuantities().values().stream().mapToInt(Integer::intValue).sum();
+            Counter.builder("store.sales.units")
+                    .description("units of placed and cancelled orders")
+                    .tag("status", status.name())
+                    .register(registry)
+                    .increment(units);
+        }
+    }
+
+    @EventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        reviewChanges.increment();
+    }
+}
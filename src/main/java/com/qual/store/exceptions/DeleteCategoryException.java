@@ -0,0 +1,7 @@
+package com.qual.store.exceptions;
+
+public class DeleteCategoryException extends RuntimeException {
+    public DeleteCategoryException(String message) {
+        super(message);
+    }
+}
@@ -1,41 +1,156 @@
 package com.qual.store.logger;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.*;
+import com.qual.store.dto.base.BaseDto;
+import com.qual.store.model.base.BaseEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Aspect
+@EnableConfigurationProperties(MethodTimingProperties.class)
 public class LoggingAspect {
+    static final String TIMER_NAME = "store.method.duration";
+
     private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final MethodTimingProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> errorTimers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public LoggingAspect(MethodTimingProperties properties, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.properties = properties;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
 
     @Pointcut("@annotation(Log)")
     public void logPointcut() {
 
     }
 
-    @Before("logPointcut()")
-    public void logAllMethodCallsAdvice(JoinPoint joinPoint) {
-        log.info("enter class: " + joinPoint.getSignature().getDeclaringTypeName() +
-                ", method: " + joinPoint.getSignature().getName() +
-                ", args: " + Arrays.toString(joinPoint.getArgs()));
+    @Around("logPointcut()")
+    public Object timeAndTraceAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean debug = log.isDebugEnabled();
+        if (!properties.isEnabled() && !debug) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (debug) {
+            log.debug("enter {}.{} args: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    summarizeArgs(joinPoint.getArgs()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long elapsed = System.nanoTime() - start;
+            record(successTimers, method, "success", elapsed);
+            if (debug) {
+                log.debug("exit {}.{} in {} us", method.getDeclaringClass().getSimpleName(), method.getName(),
+                        elapsed / 1000);
+            }
+            return result;
+        } catch (Throwable error) {
+            record(errorTimers, method, "error", System.nanoTime() - start);
+            log.warn("error in {}.{}: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    error.toString());
+            throw error;
+        }
+    }
+
+    private void record(Map<Method, Timer> timers, Method method, String outcome, long elapsedNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> Timer.builder(TIMER_NAME)
+                    .description("latency of @Log annotated methods")
+                    .tag("class", m.getDeclaringClass().getSimpleName())
+                    .tag("method", m.getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram(properties.isPercentileHistogram())
+                    .register(registry()));
+        }
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private MeterRegistry registry() {
+        if (meterRegistry == null) {
+            meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        }
+        return meterRegistry;
     }
 
-    @After("logPointcut()")
-    public void logAllMethodCallsAdviceAfter(JoinPoint joinPoint) {
-        log.info("exit class: " + joinPoint.getSignature().getDeclaringTypeName() +
-                ", method: " + joinPoint.getSignature().getName() +
-                ", args: " + Arrays.toString(joinPoint.getArgs()));
+    // never calls toString on entities or dtos, that would walk (and lazy load) their associations
+    String summarizeArgs(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "[]";
+        }
+        StringBuilder summary = new StringBuilder("[");
+        int logged = Math.min(args.length, properties.getMaxLoggedArgs());
+        for (int i = 0; i < logged; i++) {
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(summarizeArg(args[i]));
+        }
+        if (args.length > logged) {
+            summary.append(", ... ").append(args.length - logged).append(" more");
+        }
+        return summary.append(']').toString();
     }
 
-    @AfterThrowing(value = "logPointcut()", throwing = "error")
-    public void afterThrowingAdvice(JoinPoint joinPoint, Throwable error) {
-        log.warn("warn in class: " + joinPoint.getSignature().getDeclaringTypeName() +
-                ", method: " + joinPoint.getSignature().getName() +
-                ", error: " + error);
+    private String summarizeArg(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg instanceof CharSequence text) {
+            return text.length() <= properties.getMaxArgLength()
+                    ? text.toString()
+                    : text.subSequence(0, properties.getMaxArgLength()) + "...";
+        }
+        if (arg instanceof Number || arg instanceof Boolean || arg instanceof Character || arg instanceof Enum<?>) {
+            return arg.toString();
+        }
+        if (arg instanceof MultipartFile file) {
+            return "MultipartFile[name=" + file.getOriginalFilename() + ", size=" + file.getSize() + "]";
+        }
+        if (arg instanceof BaseEntity<?> entity) {
+            return arg.getClass().getSimpleName() + "[id=" + entity.getId() + "]";
+        }
+        if (arg instanceof BaseDto dto) {
+            return arg.getClass().getSimpleName() + "[id=" + dto.getId() + "]";
+        }
+        if (arg instanceof Collection<?> collection) {
+            return arg.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (arg instanceof Map<?, ?> map) {
+            return arg.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[length=" + Array.getLength(arg) + "]";
+        }
+        return arg.getClass().getSimpleName();
     }
 }
@@ -0,0 +1,22 @@
+package com.qual.store.logger;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.method-timing")
+@Getter
+@Setter
+public class MethodTimingProperties {
+
+    // record a timer for every @Log method
+    private boolean enabled = true;
+
+    // publish histogram buckets so percentiles can be aggregated across instances
+    private boolean percentileHistogram = true;
+
+    // args are only summarized at debug level, and cut to these limits
+    private int maxLoggedArgs = 5;
+
+    private int maxArgLength = 64;
+}
@@ -0,0 +1,144 @@
+package com.qual.store.logger;
+
+import com.qual.store.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+// outermost filter, so statements issued by the security filters are counted too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!properties.isEnabled() || !QueryCounter.start()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CountHeaderResponse headerResponse = properties.isExposeHeader() ? new CountHeaderResponse(response) : null;
+        try {
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            if (headerResponse != null) {
+                headerResponse.writeCountHeaders();
+            }
+            report(request, QueryCounter.stop());
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCounter.QueryCounts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("store.request.statements")
+                .description("sql statements issued per http request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(counts.getStatements());
+        DistributionSummary.builder("store.request.entity.loads")
+                .description("entities loaded per http request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(counts.getEntityLoads());
+
+        Map<String, Integer> repeated = counts.getRepeatedShapes(properties.getRepeatedStatementThreshold());
+        if (!repeated.isEmpty()) {
+            Counter.builder("store.request.repeated.statements")
+                    .description("requests issuing the same statement shape repeatedly (possible n+1)")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            repeated.forEach((shape, count) -> log.warn("possible n+1 in {} {}: {} times [{}]",
+                    request.getMethod(), uri, count, shape));
+        }
+        if (counts.getStatements() > properties.getMaxStatements()) {
+            log.warn("{} {} issued {} statements and loaded {} entities, budget is {}",
+                    request.getMethod(), uri, counts.getStatements(), counts.getEntityLoads(),
+                    properties.getMaxStatements());
+        }
+    }
+
+    // headers have to be set before the body is written, by then the handler has done its queries
+    private static class CountHeaderResponse extends HttpServletResponseWrapper {
+        private boolean written;
+
+        CountHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void writeCountHeaders() {
+            QueryCounter.QueryCounts counts = QueryCounter.current();
+            if (written || counts == null || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(counts.getStatements()));
+            setHeader(ENTITY_LOAD_COUNT_HEADER, String.valueOf(counts.getEntityLoads()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeCountHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeCountHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeCountHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeCountHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeCountHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeCountHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.qual.store.logger;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// per thread statement / entity load counts, opened by QueryBudgetFilter for every http request
+public final class QueryCounter {
+    private static final ThreadLocal<QueryCounts> CURRENT = new ThreadLocal<>();
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final int MAX_TRACKED_SHAPES = 256;
+
+    private QueryCounter() {
+    }
+
+    // returns false when a scope is already open on this thread, the caller then must not stop it
+    public static boolean start() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new QueryCounts());
+        return true;
+    }
+
+    public static QueryCounts stop() {
+        QueryCounts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    public static QueryCounts current() {
+        return CURRENT.get();
+    }
+
+    static void statement(String sql) {
+        QueryCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+            counts.recordShape(sql);
+        }
+    }
+
+    static void entityLoad() {
+        QueryCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    // "in (?, ?, ?)" and "in (?, ?)" are the same shape
+    static String shapeOf(String sql) {
+        return sql.indexOf(',') < 0 ? sql : PARAMETER_LIST.matcher(sql).replaceAll("(?...)");
+    }
+
+    @Getter
+    public static class QueryCounts {
+        private int statements;
+        private int entityLoads;
+        private final Map<String, Integer> shapes = new HashMap<>();
+
+        private void recordShape(String sql) {
+            String shape = shapeOf(sql);
+            if (shapes.size() < MAX_TRACKED_SHAPES || shapes.containsKey(shape)) {
+                shapes.merge(shape, 1, Integer::sum);
+            }
+        }
+
+        public Map<String, Integer> getRepeatedShapes(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            shapes.forEach((shape, count) -> {
+                if (count >= threshold) {
+                    repeated.put(shape, count);
+                }
+            });
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.qual.store.logger;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+public class QueryCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCounter.entityLoad();
+        return false;
+    }
+}
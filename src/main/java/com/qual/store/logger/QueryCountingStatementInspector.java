@@ -0,0 +1,12 @@
+package com.qual.store.logger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.statement(sql);
+        return sql;
+    }
+}
@@ -5,6 +5,8 @@ import com.qual.store.model.enums.RoleName;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.*;
 
@@ -28,6 +30,8 @@ import java.util.*;
         }
 )
 @Table(name = "app_users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @AllArgsConstructor
 @Getter
 @Setter
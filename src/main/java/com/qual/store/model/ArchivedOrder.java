@@ -0,0 +1,75 @@
+package com.qual.store.model;
+
+import com.qual.store.model.base.BaseEntity;
+import com.qual.store.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// a DELIVERED or CANCELLED order moved out of orders by OrderArchiver, keeping its id. only written by the mover,
+// the user and product ids are plain columns so users and products can still be deleted
+@Entity
+@Immutable
+@NamedEntityGraph(
+        name = "archivedOrderWithOrderItems",
+        attributeNodes = {
+                @NamedAttributeNode(value = "orderItems")
+        }
+)
+@Table(name = "orders_archive")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@ToString(callSuper = true, exclude = "orderItems")
+public class ArchivedOrder extends BaseEntity<Long> {
+
+    @Column(nullable = false)
+    private double deliveryPrice;
+
+    @Column(nullable = false)
+    private long subtotalCents;
+
+    @Column(nullable = false)
+    private long discountCents;
+
+    @Column(nullable = false)
+    private long deliveryCents;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column
+    private LocalDate deliveryDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "order")
+    @OrderBy("id")
+    @Builder.Default
+    private List<ArchivedOrderItem> orderItems = new ArrayList<>();
+
+    public long getTotalCents() {
+        return subtotalCents - discountCents + deliveryCents;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
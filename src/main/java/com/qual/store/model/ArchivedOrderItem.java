@@ -0,0 +1,44 @@
+package com.qual.store.model;
+
+import com.qual.store.model.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// a line of an ArchivedOrder, moved together with it
+@Entity
+@Immutable
+@Table(name = "order_items_archive")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = "order")
+@ToString(callSuper = true, exclude = "order")
+@Builder
+public class ArchivedOrderItem extends BaseEntity<Long> {
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private long unitPriceCents;
+
+    @Column(nullable = false)
+    private long unitDiscountCents;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private ArchivedOrder order;
+
+    private LocalDateTime createdAt;
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
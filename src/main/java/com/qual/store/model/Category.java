@@ -1,8 +1,11 @@
 package com.qual.store.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.qual.store.model.base.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 @NamedEntityGraphs(
@@ -17,6 +20,8 @@ import java.util.List;
 )
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -30,4 +35,15 @@ public class Category extends BaseEntity<Long> {
 
     @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.LAZY, mappedBy = "category")
     private List<Product> products;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Category parent;
+
+    // ids from the root down to this category, e.g. "/1/5/12/": a subtree is every path with this prefix
+    @Column(length = 1024)
+    private String path;
 }
@@ -4,8 +4,11 @@ import com.qual.store.model.base.BaseEntity;
 import com.qual.store.model.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -49,9 +52,23 @@ import java.util.Set;
 @ToString(callSuper = true)
 public class Order extends BaseEntity<Long> {
 
+    // the order total in currency units, derived from the cent amounts below for existing clients
     @Column(nullable = false)
     private double deliveryPrice;
 
+    // amounts in cents, maintained by OrderPriceCalculator on every line change
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long subtotalCents;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long discountCents;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long deliveryCents;
+
     @Column(nullable = false)
     private LocalDate startDate;
 
@@ -62,6 +79,11 @@ public class Order extends BaseEntity<Long> {
     @Column(nullable = false)
     private OrderStatus status;
 
+    // moves with every line change through the cent amounts, BasketReaper drops baskets idle for too long
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "order")
     @Builder.Default
     private Set<OrderItem> orderItems = new HashSet<>();
@@ -75,6 +97,10 @@ public class Order extends BaseEntity<Long> {
         orderItems.add(orderItem);
     }
 
+    public long getTotalCents() {
+        return subtotalCents - discountCents + deliveryCents;
+    }
+
 
     @Override
     public int hashCode() {
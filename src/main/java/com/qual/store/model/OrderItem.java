@@ -5,6 +5,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.qual.store.model.base.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @NamedEntityGraphs(
@@ -29,6 +33,15 @@ public class OrderItem extends BaseEntity<Long> {
     @Column(nullable = false)
     private Integer quantity;
 
+    // price and discount of one unit in cents when the line was created
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long unitPriceCents;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long unitDiscountCents;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "product_id")
 //    @JsonBackReference
@@ -39,6 +52,10 @@ public class OrderItem extends BaseEntity<Long> {
     @JoinColumn(name = "order_id")
     private Order order;
 
+    // lines never attached to an order are removed by BasketReaper some time after this
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
 
     //hashcode
     @Override
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.qual.store.model.base.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.Date;
@@ -32,6 +35,11 @@ import java.util.Set;
         )
 })
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// only changed columns are written, so editing a product does not overwrite units_in_stock with the value it was
+// loaded with while reservations decrement it in place
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
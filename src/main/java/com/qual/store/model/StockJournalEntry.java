@@ -0,0 +1,30 @@
+package com.qual.store.model;
+
+import com.qual.store.model.base.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// a stock change granted from memory and not applied to products.units_in_stock yet
+@Entity
+@Table(name = "stock_journal")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Builder
+public class StockJournalEntry extends BaseEntity<Long> {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private long delta;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,10 @@
 package com.qual.store.model.enums;
 
 public enum OrderStatus {
-    ACTIVE, CHECKOUT, PLACED, SHIPPED, DELIVERED, CANCELLED
+    ACTIVE, CHECKOUT, PLACED, SHIPPED, DELIVERED, CANCELLED;
+
+    // placed, shipped and delivered orders hold their units: entering them reserves, leaving them restocks
+    public boolean holdsStock() {
+        return this == PLACED || this == SHIPPED || this == DELIVERED;
+    }
 }
@@ -2,10 +2,16 @@ package com.qual.store.repository;
 
 
 import com.qual.store.model.AppUser;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.Optional;
 
 
 public interface AppUserRepository extends ShopRepository<AppUser, Long> {
@@ -13,6 +19,15 @@ public interface AppUserRepository extends ShopRepository<AppUser, Long> {
     @EntityGraph(value = "userWithOrders", type = EntityGraph.EntityGraphType.LOAD)
     AppUser findUserByUsername(String username);
 
+    // authentication needs only username, password and role: no orders graph, served from the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<AppUser> findByUsername(String username);
+
+    // taken before the basket of the user is looked up, so adds queue even while there is no basket to lock yet
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from AppUser u where u.id = :id")
+    Optional<AppUser> findByIdForUpdate(Long id);
+
     // print user with orders
     @Query("select distinct u from AppUser u")
     @EntityGraph(value = "userWithOrders", type = EntityGraph.EntityGraphType.LOAD)
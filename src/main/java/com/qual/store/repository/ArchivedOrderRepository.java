@@ -0,0 +1,14 @@
+package com.qual.store.repository;
+
+import com.qual.store.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ArchivedOrderRepository extends ShopRepository<ArchivedOrder, Long> {
+
+    @Query("select distinct o from ArchivedOrder o where o.userId = ?1 order by o.id")
+    @EntityGraph(value = "archivedOrderWithOrderItems", type = EntityGraph.EntityGraphType.LOAD)
+    List<ArchivedOrder> findAllByUserId(Long userId);
+}
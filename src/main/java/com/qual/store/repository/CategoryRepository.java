@@ -1,19 +1,63 @@
 package com.qual.store.repository;
 
+import com.qual.store.dto.projection.CategorySummary;
+import com.qual.store.dto.projection.CategoryTreeRow;
 import com.qual.store.model.Category;
-import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.Query;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends ShopRepository<Category, Long> {
+    // one aggregate row per category, for listings that only need names and counts
+    @Query("select new com.qual.store.dto.projection.CategorySummary(c.id, c.name, count(p)) " +
+            "from Category c left join c.products p group by c.id, c.name order by c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CategorySummary> findAllSummaries();
+
+    // query cache, invalidated by any write to categories or products
     @Query("select distinct c from Category c")
     @EntityGraph(value = "categoryWithProducts", type = EntityGraph.EntityGraphType.LOAD)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findAllWithProducts();
 
     @Query("select distinct c from Category c where c.id = :categoryId")
     @EntityGraph(value = "categoryWithProducts", type = EntityGraph.EntityGraphType.LOAD)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findCategoryWithProducts(Long categoryId);
+
+    @Query("select new com.qual.store.dto.projection.CategoryTreeRow(c.id, c.name, p.id, c.path) " +
+            "from Category c left join c.parent p")
+    List<CategoryTreeRow> findAllTreeRows();
+
+    boolean existsByParentId(Long parentId);
+
+    List<Category> findAllByPathIsNullOrderByIdAsc();
+
+    @Query("select c.parent.id from Category c where c.id = :id")
+    Optional<Long> findParentIdById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Category c where c.id = :id")
+    Optional<Category> findByIdForUpdate(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Category c where c.id in :ids order by c.id")
+    List<Category> findAllByIdForUpdate(Collection<Long> ids);
+
+    // the category with this path and everything below it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Category c where c.path like concat(:prefix, '%') order by c.id")
+    List<Category> findAllByPathPrefixForUpdate(String prefix);
+
+    // moves a whole subtree: every path starting with oldPrefix gets newPrefix instead
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Category c set c.path = concat(:newPrefix, substring(c.path, length(:oldPrefix) + 1)) " +
+            "where c.path like concat(:oldPrefix, '%')")
+    int replacePathPrefix(String oldPrefix, String newPrefix);
 }
 
@@ -1,10 +1,20 @@
 package com.qual.store.repository;
 
 import com.qual.store.model.ImageModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ImageRepository extends JpaRepository<ImageModel, Long> {
     Optional<ImageModel> findByName(String name);
+
+    // names only, so the image bytes never end up in the query cache
+    @Query("select i.name from ImageModel i where i.product.id = :productId order by i.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<String> findNamesByProductId(Long productId);
 }
@@ -1,13 +1,51 @@
 package com.qual.store.repository;
 
 import com.qual.store.model.OrderItem;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderItemRepository extends ShopRepository<OrderItem, Long> {
     @Query("select distinct oi from OrderItem oi join fetch oi.product p")
     @EntityGraph(value = "orderItemWithProduct", type = EntityGraph.EntityGraphType.LOAD)
     List<OrderItem> findAllWithProduct();
+
+    // more than one line only in baskets filled before adds were serialized per user
+    List<OrderItem> findAllByOrderIdAndProductIdOrderByIdAsc(Long orderId, Long productId);
+
+    List<OrderItem> findAllByOrderId(Long orderId);
+
+    // empty for a missing line and for a line without an order
+    @Query("select o.id from OrderItem oi left join oi.order o where oi.id = :id")
+    Optional<Long> findOrderIdById(Long id);
+
+    // lines created before prices were kept in cents take the current price and discount of their product.
+    // rounded as numeric, half away from zero like OrderPriceCalculator, a double would round 1.005 * 100 down
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items"))
+    @Query(value = "update order_items oi set " +
+            "unit_price_cents = round(cast(p.price as numeric) * 100), " +
+            "unit_discount_cents = round(round(cast(p.price as numeric) * 100) * cast(p.discount_percentage as numeric) / 100) " +
+            "from products p " +
+            "where p.id = oi.product_id and oi.unit_price_cents = 0 and oi.order_id between :fromId and :toId",
+            nativeQuery = true)
+    int priceUnpricedLines(Long fromId, Long toId);
+
+    // one chunk of lines that were never attached to an order, rows locked by a running request are skipped
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items"))
+    @Query(value = "delete from order_items where id in (select id from order_items where order_id is null " +
+            "and (created_at is null or created_at < :cutoff) order by id limit :chunkSize for update skip locked)",
+            nativeQuery = true)
+    int deleteOrphans(LocalDateTime cutoff, int chunkSize);
 }
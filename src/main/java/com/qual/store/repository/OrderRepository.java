@@ -1,25 +1,123 @@
 package com.qual.store.repository;
 
 import com.qual.store.model.Order;
+import com.qual.store.model.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends ShopRepository<Order, Long> {
+public interface OrderRepository extends ShopRepository<Order, Long>, OrderSearchRepository {
     @Query("select distinct o from Order o join fetch o.user")
     @EntityGraph(value = "orderWithOrderItems", type = EntityGraph.EntityGraphType.LOAD)
     List<Order> findAllWithOrderItems();
 
+    // one page of search results with everything OrderConverter reads
+    @Query("select distinct o from Order o join fetch o.user where o.id in :ids")
+    @EntityGraph(value = "orderWithOrderItemsAndProducts", type = EntityGraph.EntityGraphType.LOAD)
+    List<Order> findAllWithUserAndOrderItemsByIdIn(Collection<Long> ids);
+
     @Query("select distinct o from Order o join fetch o.orderItems oi join fetch oi.product p where o.id = :id")
     @EntityGraph(value = "orderWithOrderItems", type = EntityGraph.EntityGraphType.LOAD)
     Optional<Order> findOrderById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(Long id);
+
+    // locked, so concurrent adds of the same user queue on the basket instead of adding the same line twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findFirstByUserIdAndStatusOrderByIdAsc(Long userId, OrderStatus status);
+
+    // the owner of the order while it is still a basket, without loading the order into the persistence context
+    @Query("select o.user.id from Order o where o.id = :id and o.status = com.qual.store.model.enums.OrderStatus.ACTIVE")
+    Optional<Long> findActiveBasketOwnerId(Long id);
+
+    // one chunk of baskets idle since before the cutoff, with their lines. locked rows are skipped, so a basket
+    // changed right now is left alone
+    @Transactional
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items")
+    })
+    @Query(value = "with reaped as (select id from orders where status = 'ACTIVE' " +
+            "and updated_at < :cutoff " +
+            "order by id limit :chunkSize for update skip locked), " +
+            "lines as (delete from order_items where order_id in (select id from reaped)) " +
+            "delete from orders where id in (select id from reaped)", nativeQuery = true)
+    int deleteIdleBaskets(LocalDateTime cutoff, int chunkSize);
+
+    // moves one chunk of DELIVERED and CANCELLED orders finished before the cutoff, with their lines, to
+    // orders_archive and order_items_archive in one statement. ids are kept, locked orders wait for the next chunk.
+    // updated_at is never null since V10, so the cutoff range-scans idx_orders_status_updated_at
+    @Transactional
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders_archive"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_items_archive")
+    })
+    @Query(value = "with moved as (select id from orders where status in ('DELIVERED', 'CANCELLED') " +
+            "and updated_at < :cutoff " +
+            "order by id limit :chunkSize for update skip locked), " +
+            "archived as (insert into orders_archive (id, delivery_price, subtotal_cents, discount_cents, " +
+            "delivery_cents, start_date, delivery_date, status, user_id, updated_at, archived_at) " +
+            "select o.id, o.delivery_price, o.subtotal_cents, o.discount_cents, o.delivery_cents, o.start_date, " +
+            "o.delivery_date, o.status, o.user_id, o.updated_at, now() from orders o join moved m on m.id = o.id), " +
+            "lines as (delete from order_items where order_id in (select id from moved) " +
+            "returning id, quantity, unit_price_cents, unit_discount_cents, product_id, order_id, created_at), " +
+            "archived_lines as (insert into order_items_archive (id, quantity, unit_price_cents, unit_discount_cents, " +
+            "product_id, order_id, created_at) select * from lines) " +
+            "delete from orders where id in (select id from moved)", nativeQuery = true)
+    int archiveFinishedOrders(LocalDateTime cutoff, int chunkSize);
+
+    @Query("select coalesce(max(o.id), 0) from Order o")
+    long findMaxId();
+
+    // taken by OrderTotalsRepairJob before it repairs a range, so line changes of those orders wait for it
+    @Query(value = "select id from orders where id between :fromId and :toId order by id for update", nativeQuery = true)
+    List<Long> lockRange(Long fromId, Long toId);
+
+    // the steps below repair the cent amounts of a range of orders from their lines, each can be repeated
+    @Transactional
+    @Modifying
+    @Query("update Order o set " +
+            "o.subtotalCents = coalesce((select sum(oi.quantity * oi.unitPriceCents) from OrderItem oi where oi.order = o), 0), " +
+            "o.discountCents = coalesce((select sum(oi.quantity * oi.unitDiscountCents) from OrderItem oi where oi.order = o), 0) " +
+            "where o.id between :fromId and :toId")
+    int recomputeSubtotals(Long fromId, Long toId);
+
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.deliveryCents = case when o.subtotalCents = 0 then 0 " +
+            "when :freeDeliveryFromCents > 0 and o.subtotalCents - o.discountCents >= :freeDeliveryFromCents then 0 " +
+            "else :deliveryCents end " +
+            "where o.id between :fromId and :toId")
+    int recomputeDelivery(Long fromId, Long toId, long deliveryCents, long freeDeliveryFromCents);
+
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.deliveryPrice = (o.subtotalCents - o.discountCents + o.deliveryCents) / 100.0 " +
+            "where o.id between :fromId and :toId")
+    int recomputeTotals(Long fromId, Long toId);
     
-    @Query("select distinct o from Order o where o.user.id = ?1")
-    @EntityGraph(value = "orderWithOrderItems", type = EntityGraph.EntityGraphType.LOAD)
+    // the user, lines and products are what the order converters read, all fetched by this one query
+    @Query("select distinct o from Order o join fetch o.user where o.user.id = ?1 order by o.id")
+    @EntityGraph(value = "orderWithOrderItemsAndProducts", type = EntityGraph.EntityGraphType.LOAD)
     List<Order> findAllByAppUserId(Long id);
 
     @Query("select distinct o from Order o join fetch o.user")
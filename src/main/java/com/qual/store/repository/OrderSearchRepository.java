@@ -0,0 +1,12 @@
+package com.qual.store.repository;
+
+import com.qual.store.model.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OrderSearchRepository {
+
+    // ids of the newest orders matching the specification, at most limit of them
+    List<Long> findIdsNewestFirst(Specification<Order> specification, int limit);
+}
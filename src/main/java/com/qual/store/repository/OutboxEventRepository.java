@@ -0,0 +1,26 @@
+package com.qual.store.repository;
+
+import com.qual.store.model.OutboxEvent;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends ShopRepository<OutboxEvent, Long> {
+
+    // the oldest event of each aggregate if it is due, later events wait until it is delivered. an event that used
+    // up its attempts keeps blocking its aggregate, so no event is ever delivered ahead of an earlier one
+    @Query(value = "select e.id from outbox_events e " +
+            "where e.available_at <= :now and e.attempts < :maxAttempts " +
+            "and not exists (select 1 from outbox_events p where p.aggregate_type = e.aggregate_type " +
+            "and p.aggregate_id = e.aggregate_id and p.id < e.id) " +
+            "order by e.id limit :batchSize", nativeQuery = true)
+    List<Long> findDispatchableIds(LocalDateTime now, int maxAttempts, int batchSize);
+
+    // empty when the event is already delivered or another dispatcher is delivering it right now
+    @Query(value = "select * from outbox_events where id = :id for update skip locked", nativeQuery = true)
+    Optional<OutboxEvent> lockById(Long id);
+
+    long countByAttemptsGreaterThanEqual(int attempts);
+}
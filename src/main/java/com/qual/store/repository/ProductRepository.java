@@ -6,9 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends ShopRepository<Product, Long> {
+public interface ProductRepository extends ShopRepository<Product, Long>, ProductStockRepository {
     @Query("select distinct p from Product p")
     @EntityGraph(value = "productWithCategoryAndReviewsAndImages", type = EntityGraph.EntityGraphType.LOAD)
     List<Product> findAllWithCategoryAndReviewsAndImages();
@@ -19,4 +21,26 @@ public interface ProductRepository extends ShopRepository<Product, Long> {
 
     @EntityGraph(value = "productWithCategoryAndReviewsAndImages", type = EntityGraph.EntityGraphType.LOAD)
     Page<Product> findAllByNameContainingIgnoreCase(String matchingName, Pageable pageable);
+
+    @Query(value = "select p.id from Product p where p.category.id = :categoryId",
+            countQuery = "select count(p) from Product p where p.category.id = :categoryId")
+    Page<Long> findIdsByCategoryId(Long categoryId, Pageable pageable);
+
+    // pathPattern is a category path followed by %, a prefix range scan on categories.path
+    @Query(value = "select p.id from Product p where p.category.path like :pathPattern",
+            countQuery = "select count(p) from Product p where p.category.path like :pathPattern")
+    Page<Long> findIdsByCategoryPathLike(String pathPattern, Pageable pageable);
+
+    @Query("select distinct p from Product p where p.category.path like :pathPattern")
+    @EntityGraph(value = "productWithCategoryAndReviewsAndImages", type = EntityGraph.EntityGraphType.LOAD)
+    List<Product> findAllWithCategoryAndReviewsAndImagesByCategoryPathLike(String pathPattern);
+
+    @Query("select distinct p from Product p where p.id in :ids")
+    @EntityGraph(value = "productWithCategoryAndReviewsAndImages", type = EntityGraph.EntityGraphType.LOAD)
+    List<Product> findAllWithCategoryAndReviewsAndImagesByIdIn(Collection<Long> ids);
+
+    // the stock including journal entries that were not flushed yet, read in one statement
+    @Query("select p.unitsInStock + coalesce((select sum(j.delta) from StockJournalEntry j where j.productId = p.id), 0) " +
+            "from Product p where p.id = :productId")
+    Optional<Long> findAvailableStock(Long productId);
 }
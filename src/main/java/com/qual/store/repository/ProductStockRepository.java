@@ -0,0 +1,9 @@
+package com.qual.store.repository;
+
+public interface ProductStockRepository {
+
+    // only decrements when enough units are left, returns 0 instead of overselling
+    int reserveStock(Long productId, long quantity);
+
+    int applyStockDelta(Long productId, long delta);
+}
@@ -0,0 +1,64 @@
+package com.qual.store.repository;
+
+import com.qual.store.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// stock updates run on every reservation and hot stock flush. as jpql bulk updates they would drop the whole Product
+// region of the second-level cache each time, here only the changed product is evicted once the transaction ends
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // hibernate evicts every region whose table is among the query spaces, and all of them when there are none.
+    // this space matches no mapped table, the product is evicted by id instead
+    private static final String STOCK_SPACE = "products.units_in_stock";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int reserveStock(Long productId, long quantity) {
+        return update("update products set units_in_stock = units_in_stock - :quantity " +
+                "where id = :productId and units_in_stock >= :quantity", productId, quantity);
+    }
+
+    @Override
+    public int applyStockDelta(Long productId, long delta) {
+        return update("update products set units_in_stock = units_in_stock + :quantity where id = :productId",
+                productId, delta);
+    }
+
+    private int update(String sql, Long productId, long quantity) {
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_SPACE)
+                .setParameter("productId", productId)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+        if (updated > 0) {
+            evictAfterCompletion(productId);
+        }
+        return updated;
+    }
+
+    // until then the cache keeps the committed stock, evicting earlier could let another reader cache it again
+    private void evictAfterCompletion(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(productId);
+            }
+        });
+    }
+
+    private void evict(Long productId) {
+        entityManager.getEntityManagerFactory().getCache().evict(Product.class, productId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.qual.store.repository;
+
+import com.qual.store.model.StockJournalEntry;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface StockJournalRepository extends ShopRepository<StockJournalEntry, Long> {
+    List<StockJournalEntry> findAllByOrderByIdAsc(Pageable pageable);
+}
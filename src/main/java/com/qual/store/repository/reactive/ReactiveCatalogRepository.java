@@ -0,0 +1,123 @@
+package com.qual.store.repository.reactive;
+
+import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.ProductDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+// builds ProductDto/CategoryDto straight from sql (child ids aggregated into arrays),
+// so one row per product comes back instead of an entity graph
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "store.reactive", name = "enabled", havingValue = "true")
+public class ReactiveCatalogRepository {
+
+    private static final String SELECT_PRODUCTS = """
+            select p.id, p.name, p.description, p.price, p.units_in_stock, p.discount_percentage,
+                   p.create_time, p.update_time, p.category_id, c.name as category_name, p.user_id,
+                   coalesce((select avg(r.rating) from reviews r where r.product_id = p.id), 0) as rating,
+                   array(select oi.id from order_items oi where oi.product_id = p.id) as order_item_ids,
+                   array(select r.id from reviews r where r.product_id = p.id) as review_ids,
+                   array(select i.name from image_model i where i.product_id = p.id) as image_names,
+                   array(select f.user_id from user_favorite_products f where f.product_id = p.id) as fav_user_ids
+            from products p
+            left join categories c on c.id = p.category_id
+            """;
+
+    private static final String SELECT_CATEGORIES = """
+            select c.id, c.name, array(select p.id from products p where p.category_id = c.id) as product_ids
+            from categories c
+            order by c.id
+            """;
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Flux<ProductDto> findProducts(String sortColumn, int limit, long offset) {
+        return reactiveDatabaseClient.sql(SELECT_PRODUCTS + " order by p." + sortColumn + ", p.id limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(this::toProductDto)
+                .all();
+    }
+
+    public Flux<ProductDto> streamProducts() {
+        return reactiveDatabaseClient.sql(SELECT_PRODUCTS + " order by p.id")
+                .map(this::toProductDto)
+                .all();
+    }
+
+    public Mono<ProductDto> findProductById(Long productId) {
+        return reactiveDatabaseClient.sql(SELECT_PRODUCTS + " where p.id = :id")
+                .bind("id", productId)
+                .map(this::toProductDto)
+                .one();
+    }
+
+    public Mono<Long> countProducts() {
+        return reactiveDatabaseClient.sql("select count(*) from products")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<CategoryDto> findCategories() {
+        return reactiveDatabaseClient.sql(SELECT_CATEGORIES)
+                .map(row -> {
+                    CategoryDto categoryDto = CategoryDto.builder()
+                            .name(row.get("name", String.class))
+                            .productIds(toList(row.get("product_ids", Long[].class)))
+                            .build();
+                    categoryDto.setId(row.get("id", Long.class));
+                    return categoryDto;
+                })
+                .all();
+    }
+
+    private ProductDto toProductDto(Readable row) {
+        ProductDto productDto = ProductDto.builder()
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(orZero(row.get("price", Double.class)))
+                .unitsInStock(orZero(row.get("units_in_stock", Long.class)))
+                .discountPercentage(orZero(row.get("discount_percentage", Double.class)))
+                .rating(orZero(row.get("rating", Double.class)))
+                .createTime(toDate(row.get("create_time", LocalDateTime.class)))
+                .updateTime(toDate(row.get("update_time", LocalDateTime.class)))
+                .orderItems(toList(row.get("order_item_ids", Long[].class)))
+                .categoryId(row.get("category_id", Long.class))
+                .categoryName(row.get("category_name", String.class))
+                .userId(row.get("user_id", Long.class))
+                .reviewsId(toList(row.get("review_ids", Long[].class)))
+                .imagesName(toList(row.get("image_names", String[].class)))
+                .favUserIds(toList(row.get("fav_user_ids", Long[].class)))
+                .build();
+        productDto.setId(row.get("id", Long.class));
+        return productDto;
+    }
+
+    private static <T> List<T> toList(T[] values) {
+        return values == null ? List.of() : Arrays.asList(values);
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,56 @@
+package com.qual.store.repository.specification;
+
+import com.qual.store.model.Order;
+import com.qual.store.model.enums.OrderStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// criteria of the admin order search, each one maps to an indexed column except the total, which is only checked
+// on the orders the other criteria already selected
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> usernameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.join("user").get("username"), escapeLike(prefix) + "%", '\\');
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> startedFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startDate"), from);
+    }
+
+    public static Specification<Order> startedTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), to);
+    }
+
+    public static Specification<Order> totalAtLeast(long cents) {
+        return (root, query, cb) -> cb.ge(totalCents(root, cb), cents);
+    }
+
+    public static Specification<Order> totalAtMost(long cents) {
+        return (root, query, cb) -> cb.le(totalCents(root, cb), cents);
+    }
+
+    // the keyset of the search, pages are ordered by id descending
+    public static Specification<Order> idBelow(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+
+    private static Expression<Long> totalCents(Root<Order> root, CriteriaBuilder cb) {
+        return cb.sum(cb.diff(root.<Long>get("subtotalCents"), root.<Long>get("discountCents")),
+                root.<Long>get("deliveryCents"));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
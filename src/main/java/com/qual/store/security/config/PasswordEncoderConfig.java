@@ -0,0 +1,33 @@
+package com.qual.store.security.config;
+
+import com.qual.store.security.util.BoundedPasswordEncoder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
+public class PasswordEncoderConfig {
+
+    // the pool is kept private to the encoder, exposing it as an Executor bean
+    // would make spring boot skip its own applicationTaskExecutor
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(properties.getStrength()), executor, properties.getTimeoutMillis());
+    }
+}
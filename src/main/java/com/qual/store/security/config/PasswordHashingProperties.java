@@ -0,0 +1,23 @@
+package com.qual.store.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "store.security.hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    // bcrypt log rounds, 10 is the spring security default
+    private int strength = 10;
+
+    // threads that are allowed to burn cpu on bcrypt at the same time
+    private int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    // hashing requests waiting for a thread, anything above is rejected with 429
+    private int queueCapacity = 64;
+
+    // how long a request thread waits for its hash before giving up
+    private long timeoutMillis = 5000;
+}
@@ -0,0 +1,47 @@
+package com.qual.store.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "store.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // upper bound of tracked clients per node, the least recently seen are dropped beyond it
+    private int maxClients = 100_000;
+
+    private List<Route> routes = new ArrayList<>();
+
+    private Admission admission = new Admission();
+
+    @Getter
+    @Setter
+    public static class Route {
+        // ant style path pattern, e.g. /api/products/search
+        private String pattern;
+
+        // optional http method, all methods when empty
+        private String method;
+
+        // burst size
+        private int capacity = 10;
+
+        private double refillPerSecond = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+        // requests handled concurrently before new ones are shed, 0 turns it off
+        private int maxInFlight = 0;
+
+        private int retryAfterSeconds = 1;
+    }
+}
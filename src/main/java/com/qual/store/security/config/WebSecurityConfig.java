@@ -3,8 +3,10 @@ package com.qual.store.security.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.qual.store.model.enums.RoleName;
 import com.qual.store.security.util.JwtRequestFilter;
+import com.qual.store.security.util.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -19,7 +21,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.core.GrantedAuthorityDefaults;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,13 +35,16 @@ import java.util.Map;
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class WebSecurityConfig {
     private final UserDetailsService jwtUserDetailsService;
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final PasswordEncoder passwordEncoder;
 
     @Autowired
     public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(jwtUserDetailsService).passwordEncoder(new BCryptPasswordEncoder());
+        auth.userDetailsService(jwtUserDetailsService).passwordEncoder(passwordEncoder);
     }
 
     @Bean
@@ -71,6 +76,8 @@ public class WebSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> {
                     auth.requestMatchers("/auth/*").permitAll();
+                    auth.requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll();
+                    auth.requestMatchers("/actuator/**").hasAuthority(RoleName.ADMIN.name());
                     auth.requestMatchers(
                             "/api/v1/auth/**",
                             "/v2/api-docs",
@@ -100,7 +107,9 @@ public class WebSecurityConfig {
                     auth.requestMatchers(HttpMethod.DELETE, "/api/adresses/**").hasAuthority(RoleName.ADMIN.name());
 
                     auth.requestMatchers(HttpMethod.GET,"/api/orders/display").hasAuthority(RoleName.ADMIN.name());
+                    auth.requestMatchers(HttpMethod.GET,"/api/orders/search").hasAuthority(RoleName.ADMIN.name());
                     auth.requestMatchers(HttpMethod.GET, "/api/products/**").permitAll();
+                    auth.requestMatchers(HttpMethod.GET, "/api/reactive/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "/api/addresses/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "/api/orderItems/**").permitAll();
@@ -115,6 +124,7 @@ public class WebSecurityConfig {
                     auth.requestMatchers(HttpMethod.DELETE, "/api/orderItems/**").permitAll();
 
                     //order can be created by user and updated, deleted by admin
+                    auth.requestMatchers(HttpMethod.POST, "/api/orders/totals/recompute").hasAuthority(RoleName.ADMIN.name());
                     auth.requestMatchers(HttpMethod.POST, "/api/orders/**").authenticated();
 //                    auth.requestMatchers(HttpMethod.PUT, "/api/orders/**").hasAuthority(RoleName.ADMIN.name());
                     auth.requestMatchers(HttpMethod.PUT, "/api/orders/**").authenticated();
@@ -151,7 +161,9 @@ public class WebSecurityConfig {
                     });
                 })
                 .sessionManagement(ses -> ses.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the jwt filter, so logged-in clients are limited by username instead of ip
+                .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
 
         return httpSecurity.build();
     }
@@ -1,5 +1,6 @@
 package com.qual.store.security.controller;
 
+import com.qual.store.exceptions.PasswordHashingRejectedException;
 import com.qual.store.model.AppUser;
 import com.qual.store.model.enums.RoleName;
 import com.qual.store.repository.AppUserRepository;
@@ -8,6 +9,8 @@ import com.qual.store.security.util.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -15,7 +18,7 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -33,6 +36,7 @@ public class AuthenticationController {
     private final AuthenticationManager authenticationManager;
     private final JwtUserDetailsService userDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final PasswordEncoder passwordEncoder;
 
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestParam("username") String username,
@@ -64,6 +68,12 @@ public class AuthenticationController {
             responseMap.put("error", true);
             responseMap.put("message", "Invalid Credentials");
             return ResponseEntity.status(401).body(responseMap);
+        } catch (PasswordHashingRejectedException e) {
+            responseMap.put("error", true);
+            responseMap.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(responseMap);
         } catch (Exception e) {
             e.printStackTrace();
             responseMap.put("error", true);
@@ -84,7 +94,7 @@ public class AuthenticationController {
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setEmail(email);
-        user.setPassword(new BCryptPasswordEncoder().encode(password));
+        user.setPassword(passwordEncoder.encode(password));
         user.setRole(getRoleFromInputString(role));
         user.setUsername(userName);
         UserDetails userDetails = userDetailsService.createUserDetails(
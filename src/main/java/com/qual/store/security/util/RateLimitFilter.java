@@ -0,0 +1,159 @@
+package com.qual.store.security.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qual.store.security.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<RateLimitProperties.Route> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Cache<String, TokenBucket> buckets;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong shedCount = new AtomicLong();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.routes = List.copyOf(properties.getRoutes());
+        // a bucket not used for its longest refill time is full again and can go. maintenance runs on the request
+        // thread in small amortized steps, the least recently used clients go first once max-clients is reached
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(longestRefill(routes))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        int routeIndex = findRoute(request);
+        if (routeIndex >= 0) {
+            long waitNanos = bucketFor(routeIndex, request).tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                rejectedCount.incrementAndGet();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+                return;
+            }
+        }
+
+        int maxInFlight = properties.getAdmission().getMaxInFlight();
+        if (maxInFlight <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            shedCount.incrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy",
+                    properties.getAdmission().getRetryAfterSeconds());
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getTrackedClients() {
+        return (int) buckets.estimatedSize();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getShedCount() {
+        return shedCount.get();
+    }
+
+    private int findRoute(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path == null || path.isEmpty()) {
+            path = request.getRequestURI();
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            if ((route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.getPattern(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private TokenBucket bucketFor(int routeIndex, HttpServletRequest request) {
+        RateLimitProperties.Route route = routes.get(routeIndex);
+        return buckets.get(routeIndex + ":" + clientOf(request),
+                key -> new TokenBucket(route.getCapacity(), route.getRefillPerSecond()));
+    }
+
+    private static Duration longestRefill(List<RateLimitProperties.Route> routes) {
+        double seconds = 1;
+        for (RateLimitProperties.Route route : routes) {
+            seconds = Math.max(seconds, route.getCapacity() / route.getRefillPerSecond());
+        }
+        return Duration.ofMillis((long) Math.ceil(seconds * 1000));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfterSeconds)
+            throws IOException {
+        Map<String, Object> responseMap = new HashMap<>();
+        responseMap.put("error", true);
+        responseMap.put("message", message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(mapper.writeValueAsString(responseMap));
+    }
+}
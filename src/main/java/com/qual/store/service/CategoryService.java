@@ -1,6 +1,8 @@
 package com.qual.store.service;
 
+import com.qual.store.dto.projection.CategorySummary;
 import com.qual.store.model.Category;
+import com.qual.store.utils.categories.CategoryTree;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,8 +10,16 @@ import java.util.Optional;
 public interface CategoryService {
     List<Category> getAllCategories();
 
+    List<CategorySummary> getCategorySummaries();
+
     Category saveCategory(String categoryName);
 
+    Category saveCategory(String categoryName, Long parentId);
+
+    Category moveCategory(Long id, Long parentId);
+
+    CategoryTree getCategoryTree();
+
     Category updateCategory(Long id, Category category);
 
     Category findCategoryById(Long id);
@@ -12,8 +12,6 @@ public interface OrderItemService {
 
     OrderItemDto getOrderItemById(Long orderItemId);
 
-    OrderItem addOrderItem(Long id, Integer quantity);
-
     void modifyQuantity(Long id, Integer quantity);
 
     void deleteOrderItemById(Long id);
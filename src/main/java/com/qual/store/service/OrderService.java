@@ -2,7 +2,9 @@ package com.qual.store.service;
 
 import com.qual.store.dto.OrderDto;
 import com.qual.store.dto.OrderItemDto;
+import com.qual.store.dto.paginated.OrderSearchResponse;
 import com.qual.store.dto.paginated.PaginatedOrderResponse;
+import com.qual.store.dto.request.OrderSearchRequest;
 import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
 
@@ -13,7 +15,7 @@ public interface OrderService {
     List<Order> getAllOrders();
     List<OrderItem> getBasketAsOrderItems();
 
-    Order addToOrder(Long orderItemId);
+    OrderItem addToBasket(Long productId, Integer quantity);
 
     void deleteOrderById(Long id);
 
@@ -23,11 +25,15 @@ public interface OrderService {
 
     List<Order> getAllOrdersByUser();
 
+    List<OrderDto> getAllOrdersByUser(boolean includeArchived);
+
     Map<Long, Integer> getProductsQuantity();
 
     PaginatedOrderResponse getOrders(Integer pageNumber, Integer pageSize, String sortBy);
 
     Order getBasket();
 
-    List<OrderDto> searchOrdersByUsername(String username);
+    OrderSearchResponse searchOrders(OrderSearchRequest request);
+
+    boolean recomputeTotals();
 }
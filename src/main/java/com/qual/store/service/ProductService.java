@@ -30,6 +30,12 @@ public interface ProductService {
 
     List<Product> findProductsByCategory(Long categoryId);
 
+    List<Product> findProductsInCategorySubtree(Long categoryId);
+
+    PaginatedProductResponse getProductsByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy);
+
+    PaginatedProductResponse getProductsInCategorySubtree(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy);
+
     void addToFavorites(Long productId);
 
     void removeFromFavorites(Long productId);
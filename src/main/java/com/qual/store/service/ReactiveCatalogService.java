@@ -0,0 +1,17 @@
+package com.qual.store.service;
+
+import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCatalogService {
+    Mono<PaginatedProductResponse> getProducts(Integer pageNumber, Integer pageSize, String sortBy);
+
+    Flux<ProductDto> streamProducts();
+
+    Mono<ProductDto> getProductById(Long productId);
+
+    Flux<CategoryDto> getAllCategories();
+}
@@ -0,0 +1,15 @@
+package com.qual.store.service;
+
+import com.qual.store.model.OrderItem;
+
+import java.util.Collection;
+
+public interface StockReservationService {
+    void reserve(Collection<OrderItem> orderItems);
+
+    void release(Collection<OrderItem> orderItems);
+
+    void reserve(Long productId, long quantity);
+
+    void release(Long productId, long quantity);
+}
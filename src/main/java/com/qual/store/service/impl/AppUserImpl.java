@@ -13,7 +13,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,6 +24,7 @@ public class AppUserImpl implements AppUserService {
     private final OrderRepository orderRepository;
     private final AppUserRepository appUserRepository;
     private final AppUserConverter appUserConverter;
+    private final PasswordEncoder passwordEncoder;
 
     @Override
     @Log
@@ -57,7 +58,7 @@ public class AppUserImpl implements AppUserService {
     @Log
     public AppUser updateUserByUsername(String username, String password) {
         AppUser userToUpdate = appUserRepository.findUserByUsername(username);
-        userToUpdate.setPassword(new BCryptPasswordEncoder().encode(password));
+        userToUpdate.setPassword(passwordEncoder.encode(password));
         return appUserRepository.save(userToUpdate);
     }
 
@@ -1,18 +1,26 @@
 package com.qual.store.service.impl;
 
+import com.qual.store.dto.projection.CategorySummary;
 import com.qual.store.exceptions.CategoryNotFoundException;
+import com.qual.store.exceptions.DeleteCategoryException;
+import com.qual.store.exceptions.ValidatorException;
 import com.qual.store.logger.Log;
 import com.qual.store.model.Category;
 import com.qual.store.repository.CategoryRepository;
 import com.qual.store.service.CategoryService;
+import com.qual.store.utils.categories.CategoryTree;
+import com.qual.store.utils.categories.CategoryTreeCache;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
 import com.qual.store.utils.validators.Validator;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -20,27 +28,121 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final Validator<Category> validator;
+    private final CategoryTreeCache categoryTreeCache;
 
     @Override
     @Log
+    @Transactional(readOnly = true)
+    @Workload(WorkloadPool.CATALOG)
     public List<Category> getAllCategories() {
-        return categoryRepository.findAllWithProducts();
+        return categoryRepository.findAll();
     }
 
+    @Override
+    @Log
+    public List<CategorySummary> getCategorySummaries() {
+        return categoryRepository.findAllSummaries();
+    }
+
+    @Transactional
     @Override
     @Log
     public Category saveCategory(String categoryName) {
+        return saveCategory(categoryName, null);
+    }
+
+    @Transactional
+    @Override
+    @Log
+    public Category saveCategory(String categoryName, Long parentId) {
+        // the lock waits for a move rewriting the parent's path, and makes such a move wait until the new category
+        // is committed and can be moved with the rest of the subtree
+        Category parent = parentId == null ? null : categoryRepository.findByIdForUpdate(parentId)
+                .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", parentId)));
         Category category = Category.builder()
                 .name(categoryName)
+                .parent(parent)
                 .build();
 
         validator.validate(category);
+
         Category savedCategory = categoryRepository.save(category);
+        // the path ends with the category's own id, so it is only known once the row has one
+        savedCategory.setPath(pathOf(parent) + savedCategory.getId() + "/");
+        categoryTreeCache.invalidate();
+
+        return savedCategory;
+    }
+
+    @Transactional
+    @Override
+    @Log
+    public Category moveCategory(Long id, Long parentId) {
+        // the category, its old and its new parent, locked in id order
+        Set<Long> ids = new TreeSet<>();
+        ids.add(id);
+        categoryRepository.findParentIdById(id).ifPresent(ids::add);
+        if (parentId != null) {
+            ids.add(parentId);
+        }
+        Map<Long, Category> lockedById = new HashMap<>();
+        categoryRepository.findAllByIdForUpdate(ids).forEach(category -> lockedById.put(category.getId(), category));
 
-        return categoryRepository.findAllWithProducts().stream()
-                .filter(c -> c.getId().equals(savedCategory.getId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("category not saved"));
+        Category category = Optional.ofNullable(lockedById.get(id))
+                .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", id)));
+        Category parent = parentId == null ? null : Optional.ofNullable(lockedById.get(parentId))
+                .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", parentId)));
+        Category oldParent = category.getParent();
+        if (oldParent != null && !lockedById.containsKey(oldParent.getId())) {
+            // moved by someone else between reading its parent and locking it
+            categoryRepository.findByIdForUpdate(oldParent.getId());
+        }
+
+        String oldPath = ensurePath(category);
+        // waits for categories being added below the subtree, the path update then sees them
+        categoryRepository.findAllByPathPrefixForUpdate(oldPath);
+        if (parent != null && parent.getPath() != null && parent.getPath().startsWith(oldPath)) {
+            throw new ValidatorException(String.format("Category %s cannot be moved below its own subtree", id));
+        }
+
+        category.setParent(parent);
+        String newPath = pathOf(parent) + id + "/";
+        if (!newPath.equals(oldPath)) {
+            categoryRepository.replacePathPrefix(oldPath, newPath);
+        }
+        categoryTreeCache.invalidate();
+
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", id)));
+    }
+
+    @Override
+    @Log
+    @Workload(WorkloadPool.CATALOG)
+    public CategoryTree getCategoryTree() {
+        return categoryTreeCache.get();
+    }
+
+    // categories created before the hierarchy existed have no path yet, they become roots
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPaths() {
+        List<Category> withoutPath = categoryRepository.findAllByPathIsNullOrderByIdAsc();
+        withoutPath.forEach(this::ensurePath);
+        if (!withoutPath.isEmpty()) {
+            categoryTreeCache.invalidate();
+        }
+    }
+
+    private String ensurePath(Category category) {
+        if (category.getPath() == null) {
+            category.setPath(pathOf(category.getParent()) + category.getId() + "/");
+        }
+        return category.getPath();
+    }
+
+    private String pathOf(Category parent) {
+        return parent == null ? "/" : ensurePath(parent);
     }
 
     @Transactional
@@ -53,13 +155,11 @@ public class CategoryServiceImpl implements CategoryService {
         optionalCategory
                 .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", id)));
 
-        optionalCategory
-                .ifPresent(updateCategory -> updateCategory.setName(category.getName()));
+        Category updatedCategory = optionalCategory.get();
+        updatedCategory.setName(category.getName());
+        categoryTreeCache.invalidate();
 
-        return categoryRepository.findAllWithProducts().stream()
-                .filter(c -> c.getId().equals(optionalCategory.get().getId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("category not saved"));
+        return updatedCategory;
     }
 
     @Override
@@ -74,7 +174,11 @@ public class CategoryServiceImpl implements CategoryService {
     public void deleteCategoryById(Long id) {
         categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", id)));
+        if (categoryRepository.existsByParentId(id)) {
+            throw new DeleteCategoryException(String.format("Category %s still has subcategories", id));
+        }
 
         categoryRepository.deleteById(id);
+        categoryTreeCache.invalidate();
     }
 }
@@ -8,6 +8,8 @@ import com.qual.store.model.Product;
 import com.qual.store.repository.ImageRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.service.ImageService;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ import static com.qual.store.utils.images.ImageUtils.decompressBytes;
 
 @Service
 @RequiredArgsConstructor
+@Workload(WorkloadPool.REPORTS)
 public class ImageServiceImpl implements ImageService {
 
     private final ImageRepository imageRepository;
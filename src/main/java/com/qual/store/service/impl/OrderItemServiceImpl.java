@@ -3,7 +3,6 @@ package com.qual.store.service.impl;
 import com.qual.store.converter.OrderItemConverter;
 import com.qual.store.dto.OrderItemDto;
 import com.qual.store.exceptions.OrderItemNotFoundException;
-import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.logger.Log;
 import com.qual.store.model.AppUser;
 import com.qual.store.model.Order;
@@ -14,9 +13,14 @@ import com.qual.store.repository.OrderItemRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.service.OrderItemService;
-import com.qual.store.utils.validators.Validator;
+import com.qual.store.service.StockReservationService;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,12 +39,17 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     private final OrderRepository orderRepository;
 
-    private final Validator<OrderItem> validator;
-
     private final AppUserRepository appUserRepository;
 
     private final ProductRepository productRepository;
 
+    private final OrderPriceCalculator orderPriceCalculator;
+
+    private final StockReservationService stockReservationService;
+
+    // only present with store.basket-store.enabled=true
+    private final ObjectProvider<BasketStore> basketStore;
+
 //    @Override
 //    @Log
 //    public List<OrderItem> getAllOrderItems() {
@@ -69,15 +78,23 @@ public class OrderItemServiceImpl implements OrderItemService {
     @Override
     @Log
     @Transactional
+    @Workload(WorkloadPool.CHECKOUT)
     public void deleteOrderItemById(Long id) {
+        Long orderId = orderItemRepository.findOrderIdById(id).orElse(null);
+        if (changedInBasketStore(id, orderId, 0)) {
+            return;
+        }
+        Order order = lockOrder(orderId);
         OrderItem orderItem = orderItemRepository.findById(id)
                 .orElseThrow(() -> new OrderItemNotFoundException(String.format("No order item with id = %s found", id)));
 
         Product product = productRepository.findById(orderItem.getProduct().getId())
                 .orElseThrow();
-        if (orderItem.getOrder() != null) {
-            Order order = orderRepository.findById(orderItem.getOrder().getId())
-                    .orElseThrow();
+        if (order != null) {
+            orderPriceCalculator.removeLine(order, orderItem);
+            if (order.getStatus().holdsStock()) {
+                stockReservationService.release(product.getId(), orderItem.getQuantity());
+            }
             order.getOrderItems().remove(orderItem);
         }
 
@@ -91,9 +108,26 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     @Override
     @Log
+    @Transactional
+    @Workload(WorkloadPool.CHECKOUT)
     public void modifyQuantity(Long idOrderItem, Integer newQuantity) {
+        Long orderId = orderItemRepository.findOrderIdById(idOrderItem).orElse(null);
+        if (changedInBasketStore(idOrderItem, orderId, newQuantity)) {
+            return;
+        }
+        Order order = lockOrder(orderId);
         OrderItem orderItem1 = orderItemRepository.findById(idOrderItem).
                 orElseThrow(() -> new OrderItemNotFoundException(String.format("No order item found with id %s", idOrderItem)));
+        if (order != null) {
+            orderPriceCalculator.changeQuantity(order, orderItem1, orderItem1.getQuantity(), Math.max(newQuantity, 0));
+            if (order.getStatus().holdsStock()) {
+                // the order's row lock keeps the reserved quantity and the line in step with a concurrent cancel
+                reserveDifference(orderItem1.getProduct().getId(), Math.max(newQuantity, 0) - orderItem1.getQuantity());
+            }
+            if (newQuantity < 1) {
+                order.getOrderItems().remove(orderItem1);
+            }
+        }
         if (newQuantity >= 1) {
             orderItem1.setQuantity(newQuantity);
             orderItemRepository.save(orderItem1);
@@ -102,20 +136,35 @@ public class OrderItemServiceImpl implements OrderItemService {
         }
     }
 
-    @Transactional
-    @Override
-    @Log
-    public OrderItem addOrderItem(Long id, Integer quantity) {
-        OrderItem orderItem = new OrderItem();
-        orderItem.setQuantity(quantity);
-        // verify if the item is already in the cart
-        Product product = productRepository.findById(id).
-                orElseThrow(() -> new ProductNotFoundException(
-                        String.format("No product with is found:%s", id)));
-        orderItem.setProduct(product);
-        validator.validate(orderItem);
-        product.addOrderItem(orderItem);
-        return orderItemRepository.save(orderItem);
+    private void reserveDifference(Long productId, long difference) {
+        if (difference > 0) {
+            stockReservationService.reserve(productId, difference);
+        } else if (difference < 0) {
+            stockReservationService.release(productId, -difference);
+        }
+    }
+
+    // the line is read only once its order is locked: a change that waited on the lock then sees the quantity the
+    // change before it committed, and its stock and total differences are taken from that
+    private Order lockOrder(Long orderId) {
+        return orderId == null ? null : orderRepository.findByIdForUpdate(orderId).orElseThrow();
+    }
+
+    // lines of baskets held by BasketStore are changed there, it writes them to the database itself. decided before
+    // the order lock, a checkout releasing the basket holds that lock while changes wait for the release
+    private boolean changedInBasketStore(Long orderItemId, Long orderId, int newQuantity) {
+        BasketStore store = basketStore.getIfAvailable();
+        if (store == null || orderId == null) {
+            return false;
+        }
+        Long userId = orderRepository.findActiveBasketOwnerId(orderId).orElse(null);
+        if (userId == null) {
+            return false;
+        }
+        OrderItem orderItem = orderItemRepository.findById(orderItemId)
+                .orElseThrow(() -> new OrderItemNotFoundException(String.format("No order item found with id %s", orderItemId)));
+        store.setQuantity(userId, orderItem.getProduct().getId(), newQuantity);
+        return true;
     }
 
     @Override
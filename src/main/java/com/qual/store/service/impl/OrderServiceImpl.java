@@ -1,11 +1,15 @@
 package com.qual.store.service.impl;
 
+import com.qual.store.converter.ArchivedOrderConverter;
 import com.qual.store.converter.OrderConverter;
 import com.qual.store.dto.OrderDto;
+import com.qual.store.dto.paginated.OrderSearchResponse;
 import com.qual.store.dto.paginated.PaginatedOrderResponse;
+import com.qual.store.dto.request.OrderSearchRequest;
+import com.qual.store.events.OrderStatusChangedEvent;
 import com.qual.store.exceptions.InvalidOrderStatusException;
-import com.qual.store.exceptions.OrderItemNotFoundException;
 import com.qual.store.exceptions.OrderNotFoundException;
+import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.exceptions.UpdateOrderStatusException;
 import com.qual.store.logger.Log;
 import com.qual.store.model.AppUser;
@@ -14,21 +18,33 @@ import com.qual.store.model.OrderItem;
 import com.qual.store.model.Product;
 import com.qual.store.model.enums.OrderStatus;
 import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.ArchivedOrderRepository;
 import com.qual.store.repository.OrderItemRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
+import com.qual.store.repository.specification.OrderSpecifications;
 import com.qual.store.service.OrderItemService;
 import com.qual.store.service.OrderService;
+import com.qual.store.service.StockReservationService;
+import com.qual.store.utils.basket.BasketLine;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import com.qual.store.utils.outbox.Outbox;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
+import com.qual.store.utils.pricing.OrderTotalsRepairJob;
 import com.qual.store.utils.validators.Validator;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -37,14 +53,25 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final AppUserRepository appUserRepository;
     private final Validator<Order> validator;
+    private final Validator<OrderItem> orderItemValidator;
     private final OrderItemService orderItemService;
     private final OrderConverter orderConverter;
+    private final StockReservationService stockReservationService;
     private final ProductRepository productRepository;
+    private final OrderPriceCalculator orderPriceCalculator;
+    private final OrderTotalsRepairJob orderTotalsRepairJob;
+    // only present with store.basket-store.enabled=true
+    private final ObjectProvider<BasketStore> basketStore;
+    private final Outbox outbox;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderConverter archivedOrderConverter;
 
 
     @Override
@@ -56,47 +83,73 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     @Override
     @Log
-    public Order addToOrder(Long orderItemId) {
+    @Workload(WorkloadPool.CHECKOUT)
+    public OrderItem addToBasket(Long productId, Integer quantity) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        AppUser appUser = appUserRepository.findUserByUsername(currentUsername);
-        OrderStatus orderStatus = OrderStatus.ACTIVE;
-        List<Order> orders = getAllOrders().stream()
-                .filter(order -> order.getUser().equals(appUser))
-                .filter(order -> order.getStatus().equals(orderStatus))
-                .toList();
-        Order order;
-        if (orders.size() == 0) {
-            order = Order.builder()
-                    .deliveryPrice(orderItemService.priceOfOrderItem(orderItemId))
-                    .startDate(LocalDate.now())
-                    .deliveryDate(LocalDate.now().plusDays(7))
-                    .status(orderStatus)
-                    .user(appUser)
-                    .build();
-            validator.validate(order);
-            OrderItem orderItem = orderItemRepository.findById(orderItemId)
-                    .orElseThrow(() -> new OrderItemNotFoundException("No order item found with id = " + orderItemId));
-            orderItem.setOrder(order);
-            order.addOrderItem(orderItem);
-            appUser.addOrder(order);
+        AppUser appUser = appUserRepository.findByUsername(authentication.getName()).orElseThrow();
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(String.format("No product with is found:%s", productId)));
+        OrderItem addedItem = OrderItem.builder()
+                .quantity(quantity)
+                .product(product)
+                .build();
+        orderItemValidator.validate(addedItem);
+
+        BasketStore store = basketStore.getIfAvailable();
+        if (store != null) {
+            // changed in memory, BasketStore writes the basket to orders/order_items behind the request
+            return toOrderItem(store.add(appUser.getId(), productId, quantity), product);
+        }
+
+        // a user has one ACTIVE basket (unique index): the user row lock keeps two first adds from both creating it
+        appUserRepository.findByIdForUpdate(appUser.getId());
+        Order basket = orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(appUser.getId(), OrderStatus.ACTIVE)
+                .orElseGet(() -> {
+                    Order order = Order.builder()
+                            .startDate(LocalDate.now())
+                            .deliveryDate(LocalDate.now().plusDays(7))
+                            .status(OrderStatus.ACTIVE)
+                            .user(appUser)
+                            .build();
+                    validator.validate(order);
+                    return orderRepository.save(order);
+                });
+
+        // the product is already in the basket: its line gets the quantity instead of a second line
+        List<OrderItem> lines = orderItemRepository.findAllByOrderIdAndProductIdOrderByIdAsc(basket.getId(), productId);
+        OrderItem orderItem = lines.isEmpty() ? null : lines.get(0);
+        for (OrderItem duplicate : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            mergeLine(basket, orderItem, duplicate);
+        }
+        if (orderItem == null) {
+            addedItem.setOrder(basket);
+            orderPriceCalculator.addLine(basket, addedItem);
+            orderItem = orderItemRepository.save(addedItem);
         } else {
-            order = orders.get(0);
-            order.setDeliveryPrice(order.getDeliveryPrice() + orderItemService.priceOfOrderItem(orderItemId));
-            OrderItem orderItem = orderItemRepository.findById(orderItemId)
-                    .orElseThrow(() -> new OrderItemNotFoundException("No order item found with id = " + orderItemId));
-            orderItem.setOrder(order);
-            order.addOrderItem(orderItem);
-            appUser.addOrder(order);
+            int oldQuantity = orderItem.getQuantity();
+            orderItem.setQuantity(oldQuantity + quantity);
+            orderItem.setProduct(product);
+            orderPriceCalculator.changeQuantity(basket, orderItem, oldQuantity, orderItem.getQuantity());
         }
-        orderRepository.save(order);
-        return order;
+
+        return orderItem;
+    }
+
+    private void mergeLine(Order basket, OrderItem orderItem, OrderItem duplicate) {
+        int oldQuantity = orderItem.getQuantity();
+        orderItem.setQuantity(oldQuantity + duplicate.getQuantity());
+        orderPriceCalculator.changeQuantity(basket, orderItem, oldQuantity, orderItem.getQuantity());
+        orderPriceCalculator.removeLine(basket, duplicate);
+        basket.getOrderItems().remove(duplicate);
+        duplicate.setOrder(null);
+        orderItemRepository.delete(duplicate);
     }
 
     @Override
     @Log
     @Transactional
     public void deleteOrderById(Long id) {
+        releaseBasket(id);
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(String.format("order with id %s not found", id)));
 
@@ -122,15 +175,16 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     @Log
+    @Workload(WorkloadPool.CHECKOUT)
     public Order updateOrderStatus(Long id, String status) {
         String uppStatus = status.toUpperCase();
-        Optional<Order> existingOrder = orderRepository.findAllWithOrderItems().stream()
-                .filter(o -> o.getId().equals(id))
-                .findFirst();
-
-        existingOrder.orElseThrow(() -> new OrderNotFoundException(
-                String.format("No order found with id %s = ", id)
-        ));
+        // a basket changed in memory is written in this transaction before its status moves on
+        releaseBasket(id);
+        // the row lock serializes status changes of an order, so its stock is reserved or released only once
+        Order order = orderRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new OrderNotFoundException(
+                        String.format("No order found with id %s = ", id)
+                ));
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
@@ -139,66 +193,47 @@ public class OrderServiceImpl implements OrderService {
             if (!(uppStatus.equals("CHECKOUT") || uppStatus.equals("PLACED"))) {
                 throw new InvalidOrderStatusException("Invalid status: " + uppStatus);
             }
-            if (uppStatus.equals("CHECKOUT") && !existingOrder.get().getStatus().name().equals("ACTIVE")
-                    || uppStatus.equals("PLACED") && !existingOrder.get().getStatus().name().equals("CHECKOUT")) {
+            if (uppStatus.equals("CHECKOUT") && !order.getStatus().name().equals("ACTIVE")
+                    || uppStatus.equals("PLACED") && !order.getStatus().name().equals("CHECKOUT")) {
                 throw new UpdateOrderStatusException("You are not allowed to change the status of this order");
             }
-
-            List<Product> productsToUpdate = new ArrayList<>();
-            Order order = existingOrder.get();
-
-            if (uppStatus.equals("PLACED")) {
-                for (OrderItem orderItem : order.getOrderItems()) {
-                    Product product = orderItem.getProduct();
-                    product.setUnitsInStock(product.getUnitsInStock() - orderItem.getQuantity());
-                    productsToUpdate.add(product);
-                }
-            }
-            productRepository.saveAll(productsToUpdate);
-
-            existingOrder.ifPresent(updateOrder -> {
-                OrderStatus orderStatus = getOrderStatusFromString(uppStatus);
-                if (!updateOrder.getUser().equals(appUser)) {
-                    throw new UpdateOrderStatusException("You are not allowed to change the status of another user's order");
-                } else if (orderStatus != null) {
-                    updateOrder.setStatus(orderStatus);
-                } else {
-                    throw new InvalidOrderStatusException("Invalid status: " + uppStatus);
-                }
-            });
-        } else {
-            // if the status is placed or cancelled, modify the stock of the products
-            Order order = existingOrder.get();
-            List<Product> productsToUpdate = new ArrayList<>();
-
-            if (uppStatus.equalsIgnoreCase("placed") && !order.getStatus().equals(OrderStatus.PLACED)) {
-                for (OrderItem orderItem : order.getOrderItems()) {
-                    Product product = orderItem.getProduct();
-                    product.setUnitsInStock(product.getUnitsInStock() - orderItem.getQuantity());
-                    productsToUpdate.add(product);
-                }
-            } else if (uppStatus.equalsIgnoreCase("cancelled") && !order.getStatus().equals(OrderStatus.CANCELLED)) {
-                for (OrderItem orderItem : order.getOrderItems()) {
-                    Product product = orderItem.getProduct();
-                    product.setUnitsInStock(product.getUnitsInStock() + orderItem.getQuantity());
-                    productsToUpdate.add(product);
-                }
+            if (!order.getUser().equals(appUser)) {
+                throw new UpdateOrderStatusException("You are not allowed to change the status of another user's order");
             }
+        }
 
-            // Update product stock outside of the loop
-            productRepository.saveAll(productsToUpdate);
+        OrderStatus orderStatus = getOrderStatusFromString(uppStatus);
+        if (orderStatus == null) {
+            throw new InvalidOrderStatusException("Invalid status: " + uppStatus);
+        }
 
-            existingOrder.ifPresent(updateOrder -> {
-                OrderStatus orderStatus = getOrderStatusFromString(uppStatus);
-                if (orderStatus != null) {
-                    updateOrder.setStatus(orderStatus);
-                } else {
-                    throw new InvalidOrderStatusException("Invalid status: " + uppStatus);
-                }
-            });
+        boolean heldStock = order.getStatus().holdsStock();
+        boolean holdsStock = orderStatus.holdsStock();
+        if (holdsStock && !heldStock) {
+            stockReservationService.reserve(order.getOrderItems());
+        } else if (heldStock && !holdsStock) {
+            stockReservationService.release(order.getOrderItems());
+        }
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(orderStatus);
+
+        // everything downstream of the status change runs from the outbox after this transaction commits
+        if (previousStatus != orderStatus) {
+            Map<Long, Integer> quantities = new TreeMap<>();
+            order.getOrderItems().forEach(orderItem ->
+                    quantities.merge(orderItem.getProduct().getId(), orderItem.getQuantity(), Integer::sum));
+            outbox.append(Outbox.ORDER, order.getId(), new OrderStatusChangedEvent(order.getId(),
+                    order.getUser() == null ? null : order.getUser().getId(), previousStatus, orderStatus, quantities));
         }
 
-        return existingOrder.get();
+        return order;
+    }
+
+    private void releaseBasket(Long orderId) {
+        BasketStore store = basketStore.getIfAvailable();
+        if (store != null) {
+            orderRepository.findActiveBasketOwnerId(orderId).ifPresent(store::release);
+        }
     }
 
     private OrderStatus getOrderStatusFromString(String status) {
@@ -215,13 +250,23 @@ public class OrderServiceImpl implements OrderService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
         AppUser appUser = appUserRepository.findUserByUsername(currentUsername);
-        List<OrderDto> ordersDto = getAllOrders().stream()
+        return orderRepository.findAllByAppUserId(appUser.getId());
+    }
+
+    @Override
+    @Log
+    @Transactional(readOnly = true)
+    public List<OrderDto> getAllOrdersByUser(boolean includeArchived) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AppUser appUser = appUserRepository.findUserByUsername(authentication.getName());
+        List<OrderDto> orders = orderRepository.findAllByAppUserId(appUser.getId()).stream()
                 .map(orderConverter::convertModelToDto)
-                .toList();
-        return ordersDto.stream()
-                .filter(o -> o.getUserId().equals(appUser.getId()))
-                .map(orderConverter::convertDtoToModel)
-                .toList();
+                .collect(Collectors.toList());
+        // the cold part of the user's history, only read when a client asks for archived orders
+        if (includeArchived) {
+            orders.addAll(archivedOrderConverter.convertModelsToDtos(archivedOrderRepository.findAllByUserId(appUser.getId())));
+        }
+        return orders;
     }
 
     @Override
@@ -243,6 +288,18 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Log
     public List<OrderItem> getBasketAsOrderItems() {
+        BasketStore store = basketStore.getIfAvailable();
+        if (store != null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            AppUser appUser = appUserRepository.findByUsername(authentication.getName()).orElseThrow();
+            List<OrderItem> orderItems = new ArrayList<>();
+            for (BasketLine line : store.lines(appUser.getId())) {
+                // products come from the second-level cache, a product deleted meanwhile is left out
+                productRepository.findById(line.getProductId())
+                        .ifPresent(product -> orderItems.add(toOrderItem(line, product)));
+            }
+            return orderItems;
+        }
         return orderItemRepository.findAllWithProduct().stream()
                 .filter(oi -> oi.getOrder().getId().equals(getBasket().getId()))
                 .toList();
@@ -250,6 +307,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Log
+    @Workload(WorkloadPool.REPORTS)
     public Map<Long, Integer> getProductsQuantity() {
         List<Order> orders = getAllOrders().stream()
                 .filter(o -> o.getStatus().equals(OrderStatus.PLACED))
@@ -271,6 +329,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadPool.REPORTS)
     public PaginatedOrderResponse getOrders(Integer pageNumber, Integer pageSize, String sortBy) {
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy));
 
@@ -285,11 +345,85 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    // one query selects the ids of the page, one more loads those orders with users, lines and products
     @Override
-    public List<OrderDto> searchOrdersByUsername(String username) {
-        return orderRepository.findAllWithOrderItems().stream()
-                .filter(o -> o.getUser().getUsername().equals(username))
-                .map(orderConverter::convertModelToDto)
-                .toList();
+    @Log
+    @Transactional(readOnly = true)
+    @Workload(WorkloadPool.REPORTS)
+    public OrderSearchResponse searchOrders(OrderSearchRequest request) {
+        List<Specification<Order>> criteria = new ArrayList<>();
+        if (request.getUser() != null && !request.getUser().isBlank()) {
+            criteria.add(OrderSpecifications.usernameStartsWith(request.getUser()));
+        }
+        if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            OrderStatus status = getOrderStatusFromString(request.getStatus());
+            if (status == null) {
+                throw new InvalidOrderStatusException("Invalid status: " + request.getStatus());
+            }
+            criteria.add(OrderSpecifications.hasStatus(status));
+        }
+        if (request.getFrom() != null) {
+            criteria.add(OrderSpecifications.startedFrom(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            criteria.add(OrderSpecifications.startedTo(request.getTo()));
+        }
+        if (request.getMinTotalCents() != null) {
+            criteria.add(OrderSpecifications.totalAtLeast(request.getMinTotalCents()));
+        }
+        if (request.getMaxTotalCents() != null) {
+            criteria.add(OrderSpecifications.totalAtMost(request.getMaxTotalCents()));
+        }
+        if (request.getCursor() != null) {
+            criteria.add(OrderSpecifications.idBelow(request.getCursor()));
+        }
+
+        int size = request.getSize() == null ? DEFAULT_SEARCH_PAGE_SIZE
+                : Math.min(Math.max(request.getSize(), 1), MAX_SEARCH_PAGE_SIZE);
+        // one more than the page tells whether there is a next one without counting
+        List<Long> ids = orderRepository.findIdsNewestFirst(Specification.allOf(criteria), size + 1);
+        Long nextCursor = null;
+        if (ids.size() > size) {
+            ids = ids.subList(0, size);
+            nextCursor = ids.get(size - 1);
+        }
+
+        Map<Long, Order> orders = new HashMap<>();
+        if (!ids.isEmpty()) {
+            orderRepository.findAllWithUserAndOrderItemsByIdIn(ids).forEach(order -> orders.put(order.getId(), order));
+        }
+        return OrderSearchResponse.builder()
+                .orders(ids.stream()
+                        .map(orders::get)
+                        .filter(Objects::nonNull)
+                        .map(orderConverter::convertModelToDto)
+                        .toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // a basket line as the basket endpoints return it, its ids stay null until BasketStore has written it
+    private OrderItem toOrderItem(BasketLine line, Product product) {
+        OrderItem orderItem = OrderItem.builder()
+                .quantity(line.getQuantity())
+                .product(product)
+                .build();
+        orderItem.setId(line.getOrderItemId());
+        if (line.getOrderId() != null) {
+            Order basket = new Order();
+            basket.setId(line.getOrderId());
+            orderItem.setOrder(basket);
+        }
+        return orderItem;
+    }
+
+    @Override
+    @Log
+    public boolean recomputeTotals() {
+        if (!orderTotalsRepairJob.tryStart()) {
+            return false;
+        }
+        orderTotalsRepairJob.run();
+        return true;
     }
 }
@@ -4,16 +4,23 @@ import com.qual.store.converter.ProductConverter;
 import com.qual.store.dto.ProductDto;
 import com.qual.store.dto.paginated.PaginatedProductResponse;
 import com.qual.store.dto.request.ProductRequestDto;
+import com.qual.store.exceptions.CategoryNotFoundException;
 import com.qual.store.exceptions.DeleteProductException;
 import com.qual.store.exceptions.ImageModelException;
 import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.logger.Log;
 import com.qual.store.model.*;
+import com.qual.store.model.base.BaseEntity;
 import com.qual.store.repository.*;
 import com.qual.store.service.ProductService;
+import com.qual.store.utils.categories.CategoryTree;
+import com.qual.store.utils.categories.CategoryTreeCache;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import com.qual.store.utils.inventory.HotStockInventory;
 import com.qual.store.utils.validators.Validator;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,12 +28,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.qual.store.utils.images.ImageUtils.compressBytes;
@@ -42,6 +49,9 @@ public class ProductServiceImpl implements ProductService {
     private final AppUserRepository appUserRepository;
     private final ImageRepository imageRepository;
     private final ReviewRepository reviewRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    // only present with store.hot-stock.enabled=true
+    private final ObjectProvider<HotStockInventory> hotStockInventory;
 
     @Override
     @Log
@@ -145,7 +155,7 @@ public class ProductServiceImpl implements ProductService {
                     updateProduct.setName(product.getName());
                     updateProduct.setPrice(product.getPrice());
                     updateProduct.setDescription(product.getDescription());
-                    updateProduct.setUnitsInStock(product.getUnitsInStock());
+                    setUnitsInStock(updateProduct, product.getUnitsInStock());
                     updateProduct.setDiscountPercentage(product.getDiscountPercentage());
                 });
 
@@ -153,6 +163,16 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ProductNotFoundException(String.format("No product found with id %s", id)));
     }
 
+    private void setUnitsInStock(Product product, long unitsInStock) {
+        HotStockInventory hotStock = hotStockInventory.getIfAvailable();
+        if (hotStock != null && hotStock.isHot(product.getId())) {
+            // the counter grants the reservations, the row follows through the journal
+            hotStock.setAvailable(product.getId(), unitsInStock);
+        } else {
+            product.setUnitsInStock(unitsInStock);
+        }
+    }
+
     @Override
     @Log
     public Product findProductById(Long id) {
@@ -190,6 +210,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Log
+    @Workload(WorkloadPool.CATALOG)
     public PaginatedProductResponse getProducts(Integer pageNumber, Integer pageSize, String sortBy) {
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy));
 
@@ -205,6 +226,8 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Log
+    @Transactional(readOnly = true)
+    @Workload(WorkloadPool.CATALOG)
     public ProductDto getProductById(Long productId) {
         Product product = productRepository.findAllWithCategoryAndReviewsAndImages()
                 .stream()
@@ -226,6 +249,56 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Log
+    public List<Product> findProductsInCategorySubtree(Long categoryId) {
+        return productRepository.findAllWithCategoryAndReviewsAndImagesByCategoryPathLike(subtreePattern(categoryId));
+    }
+
+    @Override
+    @Log
+    @Workload(WorkloadPool.CATALOG)
+    public PaginatedProductResponse getProductsByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new CategoryNotFoundException(String.format("No category found with id %s", categoryId));
+        }
+
+        // page over the ids, fetching the collections in the paged query would paginate in memory
+        return toPaginatedResponse(productRepository.findIdsByCategoryId(categoryId,
+                PageRequest.of(pageNumber, pageSize, Sort.by(sortBy))));
+    }
+
+    @Override
+    @Log
+    @Workload(WorkloadPool.CATALOG)
+    public PaginatedProductResponse getProductsInCategorySubtree(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy) {
+        return toPaginatedResponse(productRepository.findIdsByCategoryPathLike(subtreePattern(categoryId),
+                PageRequest.of(pageNumber, pageSize, Sort.by(sortBy))));
+    }
+
+    private String subtreePattern(Long categoryId) {
+        CategoryTree.Node category = categoryTreeCache.get().find(categoryId)
+                .orElseThrow(() -> new CategoryNotFoundException(String.format("No category found with id %s", categoryId)));
+        return category.getPath() + "%";
+    }
+
+    private PaginatedProductResponse toPaginatedResponse(Page<Long> page) {
+        Map<Long, Product> productsById = page.isEmpty()
+                ? Map.of()
+                : productRepository.findAllWithCategoryAndReviewsAndImagesByIdIn(page.getContent()).stream()
+                .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+
+        return PaginatedProductResponse.builder()
+                .products(page.getContent().stream()
+                        .map(productsById::get)
+                        .filter(Objects::nonNull)
+                        .map(productConverter::convertModelToDto)
+                        .toList())
+                .numberOfItems(page.getTotalElements())
+                .numberOfPages(page.getTotalPages())
+                .build();
+    }
+
     @Override
     @Log
     public void addToFavorites(Long productId) {
@@ -271,6 +344,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Workload(WorkloadPool.CATALOG)
     public PaginatedProductResponse searchProductByName(String name,
                                                         Integer pageNumber, Integer pageSize, String sortBy) {
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy));
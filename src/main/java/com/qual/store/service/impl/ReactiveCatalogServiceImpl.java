@@ -0,0 +1,72 @@
+package com.qual.store.service.impl;
+
+import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.exceptions.ProductNotFoundException;
+import com.qual.store.exceptions.ValidatorException;
+import com.qual.store.repository.reactive.ReactiveCatalogRepository;
+import com.qual.store.service.ReactiveCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "store.reactive", name = "enabled", havingValue = "true")
+public class ReactiveCatalogServiceImpl implements ReactiveCatalogService {
+
+    // sortBy values accepted by /api/products/display, mapped to their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "unitsInStock", "units_in_stock",
+            "discountPercentage", "discount_percentage",
+            "createTime", "create_time",
+            "updateTime", "update_time"
+    );
+
+    private final ReactiveCatalogRepository reactiveCatalogRepository;
+
+    @Override
+    public Mono<PaginatedProductResponse> getProducts(Integer pageNumber, Integer pageSize, String sortBy) {
+        String sortColumn = SORT_COLUMNS.get(sortBy);
+        if (sortColumn == null) {
+            return Mono.error(new ValidatorException(String.format("cannot sort products by %s", sortBy)));
+        }
+        if (pageNumber < 0 || pageSize < 1) {
+            return Mono.error(new ValidatorException("invalid page"));
+        }
+
+        return Mono.zip(
+                reactiveCatalogRepository.findProducts(sortColumn, pageSize, (long) pageNumber * pageSize).collectList(),
+                reactiveCatalogRepository.countProducts()
+        ).map(pageAndCount -> PaginatedProductResponse.builder()
+                .products(pageAndCount.getT1())
+                .numberOfItems(pageAndCount.getT2())
+                .numberOfPages((int) ((pageAndCount.getT2() + pageSize - 1) / pageSize))
+                .build());
+    }
+
+    @Override
+    public Flux<ProductDto> streamProducts() {
+        return reactiveCatalogRepository.streamProducts();
+    }
+
+    @Override
+    public Mono<ProductDto> getProductById(Long productId) {
+        return reactiveCatalogRepository.findProductById(productId)
+                .switchIfEmpty(Mono.error(
+                        new ProductNotFoundException(String.format("No product found with id %s", productId))));
+    }
+
+    @Override
+    public Flux<CategoryDto> getAllCategories() {
+        return reactiveCatalogRepository.findCategories();
+    }
+}
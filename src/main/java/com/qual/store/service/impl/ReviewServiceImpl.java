@@ -3,6 +3,7 @@ package com.qual.store.service.impl;
 import com.qual.store.converter.ReviewConverter;
 import com.qual.store.dto.ReviewDto;
 import com.qual.store.dto.request.ReviewRequestDto;
+import com.qual.store.events.ReviewChangedEvent;
 import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.exceptions.ReviewNotFoundException;
 import com.qual.store.logger.Log;
@@ -13,13 +14,16 @@ import com.qual.store.repository.AppUserRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.repository.ReviewRepository;
 import com.qual.store.service.ReviewService;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import com.qual.store.utils.outbox.Outbox;
 import com.qual.store.utils.validators.ReviewValidator;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +37,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewConverter reviewConverter;
     private final ReviewValidator validator;
     private final AppUserRepository appUserRepository;
+    private final Outbox outbox;
 
     @Log
     @Override
@@ -45,6 +50,8 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Log
     @Override
+    @Transactional(readOnly = true)
+    @Workload(WorkloadPool.CATALOG)
     public List<ReviewDto> getReviewsByProductId(Long productId) {
         return reviewRepository.findAll()
                 .stream().filter(review -> review.getProduct().getId().equals(productId))
@@ -74,10 +81,11 @@ public class ReviewServiceImpl implements ReviewService {
 
         productRepository.save(product);
 
-        return reviewConverter.convertModelToDto(reviewRepository
+        Review savedReview = reviewRepository
                 .findByTitle(review.getTitle())
-                .orElseThrow()
-        );
+                .orElseThrow();
+        outbox.append(Outbox.PRODUCT, productId, new ReviewChangedEvent(productId, savedReview.getId()));
+        return reviewConverter.convertModelToDto(savedReview);
     }
 
     @Log
@@ -95,6 +103,8 @@ public class ReviewServiceImpl implements ReviewService {
             review.setTitle(reviewRequestDto.getTitle());
             review.setComment(reviewRequestDto.getComment());
             review.setRating(reviewRequestDto.getRating());
+            outbox.append(Outbox.PRODUCT, review.getProduct().getId(),
+                    new ReviewChangedEvent(review.getProduct().getId(), review.getId()));
         });
 
         return reviewConverter.convertModelToDto(reviewRepository.findById(id).orElseThrow());
@@ -123,5 +133,6 @@ public class ReviewServiceImpl implements ReviewService {
 
         productRepository.save(product);
         reviewRepository.delete(review);
+        outbox.append(Outbox.PRODUCT, product.getId(), new ReviewChangedEvent(product.getId(), id));
     }
 }
@@ -0,0 +1,75 @@
+package com.qual.store.service.impl;
+
+import com.qual.store.exceptions.InsufficientStockException;
+import com.qual.store.logger.Log;
+import com.qual.store.model.OrderItem;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.service.StockReservationService;
+import com.qual.store.utils.inventory.HotStockInventory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    // only present with store.hot-stock.enabled=true
+    private final ObjectProvider<HotStockInventory> hotStockInventory;
+
+    @Override
+    @Transactional
+    @Log
+    public void reserve(Collection<OrderItem> orderItems) {
+        quantitiesByProduct(orderItems).forEach(this::reserve);
+    }
+
+    @Override
+    @Transactional
+    @Log
+    public void release(Collection<OrderItem> orderItems) {
+        quantitiesByProduct(orderItems).forEach(this::release);
+    }
+
+    @Override
+    @Transactional
+    @Log
+    public void reserve(Long productId, long quantity) {
+        HotStockInventory hotStock = hotStockInventory.getIfAvailable();
+        boolean reserved = hotStock != null && hotStock.isHot(productId)
+                ? hotStock.reserve(productId, quantity)
+                // the conditional decrement updates nothing when there are not enough units, which rolls back the whole order
+                : productRepository.reserveStock(productId, quantity) > 0;
+        if (!reserved) {
+            throw new InsufficientStockException(
+                    String.format("Not enough units in stock for product with id %s", productId));
+        }
+    }
+
+    @Override
+    @Transactional
+    @Log
+    public void release(Long productId, long quantity) {
+        HotStockInventory hotStock = hotStockInventory.getIfAvailable();
+        if (hotStock != null && hotStock.isHot(productId)) {
+            hotStock.release(productId, quantity);
+        } else {
+            productRepository.applyStockDelta(productId, quantity);
+        }
+    }
+
+    // sorted by product id, so concurrent orders sharing products lock the rows in the same order and cannot deadlock
+    private SortedMap<Long, Long> quantitiesByProduct(Collection<OrderItem> orderItems) {
+        SortedMap<Long, Long> quantities = new TreeMap<>();
+        for (OrderItem orderItem : orderItems) {
+            quantities.merge(orderItem.getProduct().getId(), orderItem.getQuantity().longValue(), Long::sum);
+        }
+        return quantities;
+    }
+}
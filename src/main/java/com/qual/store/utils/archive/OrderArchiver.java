@@ -0,0 +1,53 @@
+package com.qual.store.utils.archive;
+
+import com.qual.store.config.OrderArchiveProperties;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// moves finished orders to the archive tables one bounded statement at a time, so orders and order_items only hold
+// baskets and orders still in progress plus the recent history
+public class OrderArchiver {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final OrderArchiveProperties properties;
+    private final OrderRepository orderRepository;
+    private final AtomicLong archivedOrders = new AtomicLong();
+
+    public OrderArchiver(OrderArchiveProperties properties, OrderRepository orderRepository) {
+        this.properties = properties;
+        this.orderRepository = orderRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${store.order-archive.interval-millis:3600000}",
+            initialDelayString = "${store.order-archive.interval-millis:3600000}")
+    @Workload(WorkloadPool.REPORTS)
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getArchiveAfterDays());
+        int chunkSize = properties.getChunkSize();
+
+        int total = 0;
+        for (int i = 0; i < properties.getMaxChunksPerRun(); i++) {
+            int moved = orderRepository.archiveFinishedOrders(cutoff, chunkSize);
+            total += moved;
+            // a short chunk means nothing unlocked is left to move
+            if (moved < chunkSize) {
+                break;
+            }
+        }
+        archivedOrders.addAndGet(total);
+        if (total > 0) {
+            log.info("archived {} orders finished before {}", total, cutoff);
+        }
+    }
+
+    public long getArchivedOrders() {
+        return archivedOrders.get();
+    }
+}
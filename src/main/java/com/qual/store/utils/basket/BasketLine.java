@@ -0,0 +1,18 @@
+package com.qual.store.utils.basket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// one line of an in-memory basket, the ids are null until the basket has been written
+@Getter
+@AllArgsConstructor
+public class BasketLine {
+
+    private final Long productId;
+
+    private final int quantity;
+
+    private final Long orderId;
+
+    private final Long orderItemId;
+}
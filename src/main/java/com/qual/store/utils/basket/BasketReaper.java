@@ -0,0 +1,72 @@
+package com.qual.store.utils.basket;
+
+import com.qual.store.config.BasketReaperProperties;
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.utils.datasource.Workload;
+import com.qual.store.utils.datasource.WorkloadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+// deletes abandoned baskets and order items that never made it into an order, one bounded statement at a time,
+// so no transaction stays open longer than one chunk and rows locked by requests are skipped
+public class BasketReaper {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final BasketReaperProperties properties;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final AtomicLong reapedBaskets = new AtomicLong();
+    private final AtomicLong reapedOrderItems = new AtomicLong();
+
+    public BasketReaper(BasketReaperProperties properties, OrderRepository orderRepository,
+                        OrderItemRepository orderItemRepository) {
+        this.properties = properties;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${store.basket-reaper.interval-millis:600000}",
+            initialDelayString = "${store.basket-reaper.interval-millis:600000}")
+    @Workload(WorkloadPool.REPORTS)
+    public void reap() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime basketCutoff = now.minusHours(properties.getBasketTtlHours());
+        LocalDateTime orphanCutoff = now.minusMinutes(properties.getOrphanItemTtlMinutes());
+        int chunkSize = properties.getChunkSize();
+
+        int baskets = drain(() -> orderRepository.deleteIdleBaskets(basketCutoff, chunkSize));
+        int orderItems = drain(() -> orderItemRepository.deleteOrphans(orphanCutoff, chunkSize));
+        reapedBaskets.addAndGet(baskets);
+        reapedOrderItems.addAndGet(orderItems);
+        if (baskets > 0 || orderItems > 0) {
+            log.info("deleted {} abandoned baskets and {} orphaned order items", baskets, orderItems);
+        }
+    }
+
+    public long getReapedBaskets() {
+        return reapedBaskets.get();
+    }
+
+    public long getReapedOrderItems() {
+        return reapedOrderItems.get();
+    }
+
+    // a short chunk means nothing unlocked is left to delete
+    private int drain(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxChunksPerRun(); i++) {
+            int deleted = chunk.getAsInt();
+            total += deleted;
+            if (deleted < properties.getChunkSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,281 @@
+package com.qual.store.utils.basket;
+
+import com.qual.store.config.BasketStoreProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ACTIVE baskets held in memory by user id. changes only take the user's stripe lock and mark the basket dirty,
+// flush() writes every dirty basket once however many changes it received since the last write. release() writes
+// a basket synchronously before its order is checked out or changed directly, and evicted baskets are written first
+public class BasketStore {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final BasketStoreProperties properties;
+    private final BasketWriter basketWriter;
+    private final Map<Long, CachedBasket> baskets = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] locks;
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public BasketStore(BasketStoreProperties properties, BasketWriter basketWriter) {
+        this.properties = properties;
+        this.basketWriter = basketWriter;
+        int stripes = 1;
+        while (stripes < properties.getLockStripes()) {
+            stripes <<= 1;
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public List<BasketLine> lines(Long userId) {
+        ReentrantLock lock = lockUnreleased(userId);
+        try {
+            CachedBasket basket = basketOf(userId);
+            List<BasketLine> lines = new ArrayList<>(basket.quantities.size());
+            basket.quantities.keySet().forEach(productId -> lines.add(lineOf(basket, productId)));
+            return lines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // adds to the product's line, or creates it
+    public BasketLine add(Long userId, Long productId, int quantity) {
+        ReentrantLock lock = lockUnreleased(userId);
+        try {
+            CachedBasket basket = basketOf(userId);
+            basket.quantities.merge(productId, quantity, Integer::sum);
+            changed(basket);
+            return lineOf(basket, productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // below one the line is removed
+    public void setQuantity(Long userId, Long productId, int quantity) {
+        ReentrantLock lock = lockUnreleased(userId);
+        try {
+            CachedBasket basket = basketOf(userId);
+            if (quantity < 1) {
+                basket.quantities.remove(productId);
+            } else {
+                basket.quantities.put(productId, quantity);
+            }
+            changed(basket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // writes the basket now and drops it from memory, before its order leaves ACTIVE or is changed directly.
+    // inside a transaction the basket only leaves memory once that transaction commits, and changes of other
+    // threads wait until then
+    public void release(Long userId) {
+        ReentrantLock lock = lockUnreleased(userId);
+        try {
+            CachedBasket basket = baskets.get(userId);
+            if (basket == null || basket.released != null) {
+                return;
+            }
+            if (basket.dirty) {
+                write(basket);
+                if (basket.orderDeleted) {
+                    return;
+                }
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                baskets.remove(userId);
+                return;
+            }
+            basket.released = new CountDownLatch(1);
+            basket.releasingThread = Thread.currentThread();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    released(basket, status == STATUS_COMMITTED);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.basket-store.flush-delay-millis:200}")
+    public int flush() {
+        int written = 0;
+        for (Long userId : new ArrayList<>(dirtyUsers)) {
+            dirtyUsers.remove(userId);
+            ReentrantLock lock = lockOf(userId);
+            lock.lock();
+            try {
+                CachedBasket basket = baskets.get(userId);
+                if (basket != null && basket.dirty) {
+                    write(basket);
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                // retried by the next flush, the basket stays readable from memory meanwhile
+                log.warn("could not write the basket of user {}: {}", userId, e.getMessage());
+                dirtyUsers.add(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void close() {
+        int written = flush();
+        log.info("wrote {} baskets on shutdown, {} could not be written", written, dirtyUsers.size());
+    }
+
+    public int getCachedBaskets() {
+        return baskets.size();
+    }
+
+    public int getDirtyBaskets() {
+        return dirtyUsers.size();
+    }
+
+    public long getChanges() {
+        return changes.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    // caller holds the user's lock
+    private CachedBasket basketOf(Long userId) {
+        CachedBasket basket = baskets.get(userId);
+        if (basket == null) {
+            evictIfFull();
+            basket = new CachedBasket(userId);
+            basketWriter.load(basket);
+            baskets.put(userId, basket);
+        }
+        basket.lastAccess = System.nanoTime();
+        return basket;
+    }
+
+    private void changed(CachedBasket basket) {
+        basket.dirty = true;
+        dirtyUsers.add(basket.userId);
+        changes.incrementAndGet();
+    }
+
+    private void write(CachedBasket basket) {
+        basketWriter.write(basket);
+        basket.dirty = false;
+        writes.incrementAndGet();
+        if (basket.orderDeleted) {
+            // the next access loads whatever basket the user has now
+            baskets.remove(basket.userId, basket);
+        }
+    }
+
+    private void released(CachedBasket basket, boolean committed) {
+        ReentrantLock lock = lockOf(basket.userId);
+        lock.lock();
+        try {
+            if (committed) {
+                // always dropped: the order has left ACTIVE, the next access loads the user's new basket
+                baskets.remove(basket.userId, basket);
+            } else {
+                // the write was rolled back with the caller, the next flush writes the basket again
+                changed(basket);
+            }
+            basket.released.countDown();
+            basket.released = null;
+            basket.releasingThread = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // takes the user's lock, after waiting for another thread's transaction that is releasing the basket
+    private ReentrantLock lockUnreleased(Long userId) {
+        ReentrantLock lock = lockOf(userId);
+        while (true) {
+            lock.lock();
+            CachedBasket basket = baskets.get(userId);
+            if (basket == null || basket.released == null || basket.releasingThread == Thread.currentThread()) {
+                return lock;
+            }
+            CountDownLatch released = basket.released;
+            lock.unlock();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while the basket of user " + userId + " was released", e);
+            }
+        }
+    }
+
+    private BasketLine lineOf(CachedBasket basket, Long productId) {
+        return new BasketLine(productId, basket.quantities.get(productId), basket.orderId,
+                basket.orderItemIds.get(productId));
+    }
+
+    // drops the least recently used eighth of the baskets at once, so the sort is paid once per many loads.
+    // dirty baskets are written first in their own transaction. baskets being released or whose lock is busy are
+    // skipped instead of waited for, which keeps stripes from deadlocking
+    private void evictIfFull() {
+        int maxBaskets = properties.getMaxBaskets();
+        if (baskets.size() < maxBaskets) {
+            return;
+        }
+
+        List<CachedBasket> candidates = new ArrayList<>(baskets.values());
+        candidates.sort(Comparator.comparingLong(basket -> basket.lastAccess));
+        int toEvict = Math.min(candidates.size(), baskets.size() - maxBaskets + Math.max(1, maxBaskets / 8));
+        for (CachedBasket basket : candidates.subList(0, toEvict)) {
+            ReentrantLock lock = lockOf(basket.userId);
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (basket.released != null) {
+                    continue;
+                }
+                if (basket.dirty) {
+                    basketWriter.writeAndCommit(basket);
+                    basket.dirty = false;
+                    dirtyUsers.remove(basket.userId);
+                    writes.incrementAndGet();
+                }
+                baskets.remove(basket.userId, basket);
+            } catch (RuntimeException e) {
+                // stays in memory for the next flush
+                log.warn("could not write the evicted basket of user {}: {}", basket.userId, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock lockOf(Long userId) {
+        return locks[Long.hashCode(userId * 0x9E3779B97F4A7C15L) & (locks.length - 1)];
+    }
+}
@@ -0,0 +1,156 @@
+package com.qual.store.utils.basket;
+
+import com.qual.store.model.AppUser;
+import com.qual.store.model.Order;
+import com.qual.store.model.OrderItem;
+import com.qual.store.model.Product;
+import com.qual.store.model.enums.OrderStatus;
+import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
+import com.qual.store.utils.validators.Validator;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+// moves baskets between BasketStore and orders/order_items. a write joins the caller's transaction when there is one,
+// so at checkout the basket and the status change commit or roll back together
+public class BasketWriter {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final AppUserRepository appUserRepository;
+    private final ProductRepository productRepository;
+    private final OrderPriceCalculator orderPriceCalculator;
+    private final Validator<Order> orderValidator;
+
+    public BasketWriter(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                        AppUserRepository appUserRepository, ProductRepository productRepository,
+                        OrderPriceCalculator orderPriceCalculator, Validator<Order> orderValidator) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.appUserRepository = appUserRepository;
+        this.productRepository = productRepository;
+        this.orderPriceCalculator = orderPriceCalculator;
+        this.orderValidator = orderValidator;
+    }
+
+    @Transactional
+    public void load(CachedBasket basket) {
+        orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(basket.userId, OrderStatus.ACTIVE)
+                .ifPresent(order -> {
+                    basket.orderId = order.getId();
+                    for (OrderItem orderItem : orderItemRepository.findAllByOrderId(order.getId())) {
+                        Long productId = orderItem.getProduct().getId();
+                        basket.quantities.merge(productId, orderItem.getQuantity(), Integer::sum);
+                        basket.orderItemIds.put(productId, orderItem.getId());
+                    }
+                });
+    }
+
+    // applies the difference between the stored lines and the basket, priced by OrderPriceCalculator like the
+    // synchronous basket path
+    @Transactional
+    public void write(CachedBasket basket) {
+        Order order = null;
+        if (basket.orderId != null) {
+            Optional<Order> stored = orderRepository.findByIdForUpdate(basket.orderId);
+            if (stored.isEmpty()) {
+                // deleted by BasketReaper or an admin while the basket was held in memory: its lines go with the
+                // order instead of coming back in a new basket
+                basket.orderId = null;
+                basket.orderItemIds.clear();
+                basket.quantities.clear();
+                basket.orderDeleted = true;
+                return;
+            }
+            order = stored.filter(o -> o.getStatus() == OrderStatus.ACTIVE).orElse(null);
+        }
+        if (order == null) {
+            basket.orderId = null;
+            basket.orderItemIds.clear();
+            if (basket.quantities.isEmpty()) {
+                return;
+            }
+            // the synchronous path or another instance may have created the basket since, a second ACTIVE order
+            // of the user would break the unique index
+            AppUser appUser = appUserRepository.findByIdForUpdate(basket.userId).orElseThrow();
+            order = orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(basket.userId, OrderStatus.ACTIVE)
+                    .orElse(null);
+            if (order == null) {
+                order = Order.builder()
+                        .startDate(LocalDate.now())
+                        .deliveryDate(LocalDate.now().plusDays(7))
+                        .status(OrderStatus.ACTIVE)
+                        .user(appUser)
+                        .build();
+                orderValidator.validate(order);
+                order = orderRepository.save(order);
+            }
+        }
+
+        // older baskets can hold several lines of a product, load() summed them into one and the extra lines go
+        Map<Long, OrderItem> stored = new HashMap<>();
+        for (OrderItem orderItem : orderItemRepository.findAllByOrderId(order.getId())) {
+            if (stored.putIfAbsent(orderItem.getProduct().getId(), orderItem) != null) {
+                remove(order, orderItem);
+            }
+        }
+
+        Map<Long, Long> orderItemIds = new HashMap<>();
+        for (Map.Entry<Long, OrderItem> entry : stored.entrySet()) {
+            if (!basket.quantities.containsKey(entry.getKey())) {
+                remove(order, entry.getValue());
+            }
+        }
+        Iterator<Map.Entry<Long, Integer>> lines = basket.quantities.entrySet().iterator();
+        while (lines.hasNext()) {
+            Map.Entry<Long, Integer> entry = lines.next();
+            OrderItem orderItem = stored.get(entry.getKey());
+            if (orderItem == null) {
+                Product product = productRepository.findById(entry.getKey()).orElse(null);
+                if (product == null) {
+                    // deleted since it was added, the line is dropped instead of failing every later write
+                    lines.remove();
+                    continue;
+                }
+                orderItem = OrderItem.builder()
+                        .quantity(entry.getValue())
+                        .product(product)
+                        .order(order)
+                        .build();
+                orderPriceCalculator.addLine(order, orderItem);
+                orderItem = orderItemRepository.save(orderItem);
+                order.addOrderItem(orderItem);
+            } else if (!orderItem.getQuantity().equals(entry.getValue())) {
+                orderPriceCalculator.changeQuantity(order, orderItem, orderItem.getQuantity(), entry.getValue());
+                orderItem.setQuantity(entry.getValue());
+            }
+            orderItemIds.put(entry.getKey(), orderItem.getId());
+        }
+
+        basket.orderId = order.getId();
+        basket.orderItemIds.clear();
+        basket.orderItemIds.putAll(orderItemIds);
+    }
+
+    // for baskets evicted from memory: the write commits even when the request that evicted them fails
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void writeAndCommit(CachedBasket basket) {
+        write(basket);
+    }
+
+    private void remove(Order order, OrderItem orderItem) {
+        orderPriceCalculator.removeLine(order, orderItem);
+        order.getOrderItems().remove(orderItem);
+        orderItem.getProduct().getOrderItems().remove(orderItem);
+        orderItem.setOrder(null);
+        orderItemRepository.delete(orderItem);
+    }
+}
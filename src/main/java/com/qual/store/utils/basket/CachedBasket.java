@@ -0,0 +1,36 @@
+package com.qual.store.utils.basket;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+// the ACTIVE basket of one user as held by BasketStore, only read or changed under that user's stripe lock
+class CachedBasket {
+    final Long userId;
+
+    // null until the basket has been written the first time
+    Long orderId;
+
+    // product id to quantity, in the order the products were added
+    final Map<Long, Integer> quantities = new LinkedHashMap<>();
+
+    // product id to the order item id of lines that are already written
+    final Map<Long, Long> orderItemIds = new HashMap<>();
+
+    boolean dirty;
+
+    // set by a write that found the order deleted, BasketStore then drops the basket from memory
+    boolean orderDeleted;
+
+    // set while a transaction that wrote the basket for a checkout is open, other threads wait on it before a change
+    CountDownLatch released;
+
+    Thread releasingThread;
+
+    volatile long lastAccess;
+
+    CachedBasket(Long userId) {
+        this.userId = userId;
+    }
+}
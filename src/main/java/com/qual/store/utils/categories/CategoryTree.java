@@ -0,0 +1,83 @@
+package com.qual.store.utils.categories;
+
+import com.qual.store.dto.projection.CategoryTreeRow;
+import lombok.Getter;
+
+import java.util.*;
+
+// immutable snapshot of the category hierarchy, shared by all readers until CategoryTreeCache replaces it
+public final class CategoryTree {
+    private final Map<Long, Node> nodes;
+    private final List<Node> roots;
+
+    private CategoryTree(Map<Long, Node> nodes, List<Node> roots) {
+        this.nodes = nodes;
+        this.roots = roots;
+    }
+
+    public static CategoryTree of(Collection<CategoryTreeRow> rows) {
+        Map<Long, CategoryTreeRow> rowsById = new HashMap<>();
+        Map<Long, List<CategoryTreeRow>> childrenByParent = new HashMap<>();
+        rows.forEach(row -> rowsById.put(row.getId(), row));
+
+        List<CategoryTreeRow> rootRows = new ArrayList<>();
+        for (CategoryTreeRow row : rows) {
+            if (row.getParentId() == null || !rowsById.containsKey(row.getParentId())) {
+                rootRows.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(row.getParentId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<Long, Node> nodes = new HashMap<>();
+        List<Node> roots = rootRows.stream()
+                .sorted(Comparator.comparing(CategoryTreeRow::getName))
+                .map(row -> build(row, childrenByParent, nodes))
+                .toList();
+        return new CategoryTree(Collections.unmodifiableMap(nodes), roots);
+    }
+
+    private static Node build(CategoryTreeRow row, Map<Long, List<CategoryTreeRow>> childrenByParent,
+                              Map<Long, Node> nodes) {
+        List<Node> children = childrenByParent.getOrDefault(row.getId(), List.of()).stream()
+                .sorted(Comparator.comparing(CategoryTreeRow::getName))
+                .map(child -> build(child, childrenByParent, nodes))
+                .toList();
+        Node node = new Node(row.getId(), row.getName(), row.getParentId(), row.getPath(), children);
+        nodes.put(node.getId(), node);
+        return node;
+    }
+
+    public List<Node> getRoots() {
+        return roots;
+    }
+
+    public Optional<Node> find(Long id) {
+        return Optional.ofNullable(nodes.get(id));
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    @Getter
+    public static final class Node {
+        private final Long id;
+        private final String name;
+        private final Long parentId;
+        private final String path;
+        private final List<Node> children;
+
+        private Node(Long id, String name, Long parentId, String path, List<Node> children) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+            this.path = path;
+            this.children = children;
+        }
+
+        public boolean isInSubtreeOf(Node other) {
+            return path != null && other.path != null && path.startsWith(other.path);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.qual.store.utils.categories;
+
+import com.qual.store.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+    // bounds staleness when another instance changed the categories
+    private static final long MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(null, 0));
+
+    public CategoryTree get() {
+        Snapshot current = snapshot.get();
+        if (current.tree != null && System.nanoTime() - current.loadedAt < MAX_AGE_NANOS) {
+            return current.tree;
+        }
+
+        CategoryTree loaded = CategoryTree.of(categoryRepository.findAllTreeRows());
+        // fails when a change was committed while loading (clear installs a new snapshot), the next read loads again
+        snapshot.compareAndSet(current, new Snapshot(loaded, System.nanoTime()));
+        return loaded;
+    }
+
+    // call from write paths: the tree is dropped once the surrounding transaction has committed
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        snapshot.set(new Snapshot(null, 0));
+    }
+
+    private static final class Snapshot {
+        private final CategoryTree tree;
+        private final long loadedAt;
+
+        private Snapshot(CategoryTree tree, long loadedAt) {
+            this.tree = tree;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
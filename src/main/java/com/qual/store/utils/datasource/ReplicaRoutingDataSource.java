@@ -0,0 +1,173 @@
+package com.qual.store.utils.datasource;
+
+import com.qual.store.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// sends connections of read-only transactions to a replica that is close enough behind the primary, everything else
+// to the primary. it decides when the connection is first used, which LazyConnectionDataSourceProxy delays until the
+// transaction is marked read-only. users who just committed a write read from the primary for a while, so their
+// basket and orders never go back in time
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    // whether the replica streams from the primary, then 0 while it has replayed everything it received, otherwise
+    // the age of the last replayed transaction. a replica that stopped streaming has replayed all it received too, so
+    // its lag alone would look like 0. the status of pg_stat_wal_receiver is only visible to superusers and members
+    // of pg_read_all_stats, for any other replica user it reads as not streaming
+    private static final String LAG_QUERY = "select exists (select 1 from pg_stat_wal_receiver where status = 'streaming'), " +
+            "case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "then 0 else coalesce(cast(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 as bigint), 0) end";
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ReplicaProperties properties;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryRoutes = new AtomicLong();
+    private final AtomicLong replicaRoutes = new AtomicLong();
+    private final AtomicLong readYourWritesRoutes = new AtomicLong();
+    // replicas get no reads until their lag was checked once
+    private volatile List<String> usableReplicas = List.of();
+
+    public ReplicaRoutingDataSource(ReplicaProperties properties, DataSource primary, Map<String, DataSource> replicas) {
+        this.properties = properties;
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(user, System.nanoTime()
+                                + TimeUnit.MILLISECONDS.toNanos(properties.getReadYourWritesMillis()));
+                    }
+                });
+            }
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+
+        Long readFromPrimaryUntil = user == null ? null : recentWriters.get(user);
+        if (readFromPrimaryUntil != null && readFromPrimaryUntil - System.nanoTime() > 0) {
+            readYourWritesRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        List<String> candidates = usableReplicas;
+        if (candidates.isEmpty()) {
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        replicaRoutes.incrementAndGet();
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${store.replica.lag-check-interval-millis:2000}")
+    public void checkLag() {
+        List<String> usable = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            long lag = lagOf(replica.getKey(), replica.getValue());
+            lagMillis.put(replica.getKey(), lag);
+            if (lag <= properties.getMaxLagMillis()) {
+                usable.add(replica.getKey());
+            }
+        }
+        if (!usable.equals(usableReplicas)) {
+            log.info("read-only transactions now go to {}", usable.isEmpty() ? List.of(PRIMARY) : usable);
+        }
+        usableReplicas = List.copyOf(usable);
+
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now <= 0);
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.values().forEach(replica -> {
+            if (replica instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        });
+    }
+
+    public List<String> getUsableReplicas() {
+        return usableReplicas;
+    }
+
+    // Long.MAX_VALUE while the replica cannot be reached or does not stream from the primary
+    public long getLagMillis(String replica) {
+        return lagMillis.getOrDefault(replica, Long.MAX_VALUE);
+    }
+
+    public List<String> getReplicaNames() {
+        return List.copyOf(replicas.keySet());
+    }
+
+    public long getPrimaryRoutes() {
+        return primaryRoutes.get();
+    }
+
+    public long getReplicaRoutes() {
+        return replicaRoutes.get();
+    }
+
+    public long getReadYourWritesRoutes() {
+        return readYourWritesRoutes.get();
+    }
+
+    private long lagOf(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            if (!resultSet.next() || !resultSet.getBoolean(1)) {
+                return Long.MAX_VALUE;
+            }
+            return resultSet.getLong(2);
+        } catch (SQLException e) {
+            log.warn("could not check the lag of replica {}: {}", name, e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,14 @@
+package com.qual.store.utils.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// runs the method, or every method of the class, on the connections of a workload pool. the outermost annotated
+// method on the thread decides, calls without one use the primary pool
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadPool value();
+}
@@ -0,0 +1,26 @@
+package com.qual.store.utils.datasource;
+
+// the workload pool of the current thread, set by WorkloadAspect
+public final class WorkloadContext {
+    private static final ThreadLocal<WorkloadPool> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    // returns false when a workload is already set on this thread, the caller then must not leave it
+    public static boolean enter(WorkloadPool pool) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(pool);
+        return true;
+    }
+
+    public static void leave() {
+        CURRENT.remove();
+    }
+
+    public static WorkloadPool current() {
+        return CURRENT.get();
+    }
+}
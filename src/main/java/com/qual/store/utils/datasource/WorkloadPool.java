@@ -0,0 +1,11 @@
+package com.qual.store.utils.datasource;
+
+// connection pools separate from the primary pool, so a slow workload only exhausts its own
+public enum WorkloadPool {
+    // short latency-sensitive catalog reads
+    CATALOG,
+    // basket and order changes
+    CHECKOUT,
+    // long admin reports and image blobs
+    REPORTS
+}
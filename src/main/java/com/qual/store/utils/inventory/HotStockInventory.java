@@ -0,0 +1,151 @@
+package com.qual.store.utils.inventory;
+
+import com.qual.store.config.HotStockProperties;
+import com.qual.store.exceptions.ProductNotFoundException;
+import com.qual.store.model.StockJournalEntry;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.repository.StockJournalRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// reservations of hot products are granted from striped counters instead of contending on their product row.
+// each grant writes a journal row in the order's transaction, the flush folds committed rows into
+// products.units_in_stock in batches. after a crash the journal still holds everything not applied yet,
+// counters are seeded from the stock plus those rows and the next flush applies them
+public class HotStockInventory {
+    // ids per delete statement, a whole batch of ids in one statement would get large
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final HotStockProperties properties;
+    private final ProductRepository productRepository;
+    private final StockJournalRepository stockJournalRepository;
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong flushedEntries = new AtomicLong();
+
+    public HotStockInventory(HotStockProperties properties, ProductRepository productRepository,
+                             StockJournalRepository stockJournalRepository) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.stockJournalRepository = stockJournalRepository;
+    }
+
+    public boolean isHot(Long productId) {
+        return properties.getProductIds().contains(productId);
+    }
+
+    public boolean reserve(Long productId, long quantity) {
+        StripedStockCounter counter = counterOf(productId);
+        if (!counter.tryTake(quantity)) {
+            return false;
+        }
+
+        afterCompletion(counter, quantity, false);
+        stockJournalRepository.save(StockJournalEntry.builder().productId(productId).delta(-quantity).build());
+        return true;
+    }
+
+    public void release(Long productId, long quantity) {
+        StripedStockCounter counter = counterOf(productId);
+        stockJournalRepository.save(StockJournalEntry.builder().productId(productId).delta(quantity).build());
+        // the units only become available again once the cancellation is committed
+        afterCompletion(counter, quantity, true);
+    }
+
+    // an admin edit of the stock of a hot product: the counter and the journal move by the difference to what is
+    // available now, the product row itself is left to the flush so it never overwrites journal rows not applied yet
+    public long setAvailable(Long productId, long units) {
+        StripedStockCounter counter = counterOf(productId);
+        long delta = units - counter.available();
+        if (delta < 0) {
+            // units reserved concurrently are not taken twice, the stock only drops to what is left
+            long taken = counter.drain(-delta);
+            afterCompletion(counter, taken, false);
+            delta = -taken;
+        } else if (delta > 0) {
+            afterCompletion(counter, delta, true);
+        }
+        if (delta != 0) {
+            stockJournalRepository.save(StockJournalEntry.builder().productId(productId).delta(delta).build());
+        }
+        return delta;
+    }
+
+    public long available(Long productId) {
+        return counterOf(productId).available();
+    }
+
+    public long getFlushedEntries() {
+        return flushedEntries.get();
+    }
+
+    public int getTrackedProducts() {
+        return counters.size();
+    }
+
+    @Scheduled(fixedDelayString = "${store.hot-stock.flush-interval-millis:1000}")
+    @Transactional
+    public int flush() {
+        List<StockJournalEntry> entries = stockJournalRepository.findAllByOrderByIdAsc(
+                PageRequest.of(0, properties.getFlushBatchSize()));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        // one update per product and batch, in product id order like the order path
+        Map<Long, Long> deltas = new TreeMap<>();
+        entries.forEach(entry -> deltas.merge(entry.getProductId(), entry.getDelta(), Long::sum));
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                productRepository.applyStockDelta(productId, delta);
+            }
+        });
+        // deletes exactly the rows that were summed by id, rows committed meanwhile wait for the next flush even when
+        // their id is lower than the last one summed
+        List<Long> ids = entries.stream().map(StockJournalEntry::getId).toList();
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            stockJournalRepository.deleteAllByIdInBatch(chunk);
+        }
+
+        flushedEntries.addAndGet(entries.size());
+        log.debug("flushed {} stock journal entries for {} products", entries.size(), deltas.size());
+        return entries.size();
+    }
+
+    private StripedStockCounter counterOf(Long productId) {
+        return counters.computeIfAbsent(productId, id -> new StripedStockCounter(properties.getStripes(),
+                productRepository.findAvailableStock(id)
+                        .orElseThrow(() -> new ProductNotFoundException(String.format("No product found with id %s", id)))));
+    }
+
+    private void afterCompletion(StripedStockCounter counter, long quantity, boolean onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                counter.add(quantity);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (onCommit == (status == STATUS_COMMITTED)) {
+                    counter.add(quantity);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.qual.store.utils.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// available units split over stripes: a thread starts at its own stripe, so concurrent reservations
+// rarely CAS the same slot, and a stripe never goes below zero, so the sum can never oversell
+public final class StripedStockCounter {
+    // one stripe per 64 byte cache line
+    private static final int PADDING = 8;
+
+    private final int stripeCount;
+    private final AtomicLongArray stripes;
+
+    public StripedStockCounter(int stripeCount, long units) {
+        this.stripeCount = Math.max(1, stripeCount);
+        this.stripes = new AtomicLongArray(this.stripeCount * PADDING);
+        long share = units / this.stripeCount;
+        for (int stripe = 0; stripe < this.stripeCount; stripe++) {
+            stripes.set(stripe * PADDING, share);
+        }
+        stripes.addAndGet(0, units - share * this.stripeCount);
+    }
+
+    public boolean tryTake(long quantity) {
+        int home = homeStripe();
+        long remaining = quantity;
+        long[] taken = null;
+        for (int i = 0; i < stripeCount && remaining > 0; i++) {
+            int stripe = (home + i) % stripeCount;
+            long took = takeUpTo(stripe, remaining);
+            if (took > 0) {
+                if (taken == null) {
+                    taken = new long[stripeCount];
+                }
+                taken[stripe] = took;
+                remaining -= took;
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+
+        // not enough left in total: the units collected so far go back, a concurrent taker near sell-out
+        // may be refused while they are held, it is never granted more than there is
+        if (taken != null) {
+            for (int stripe = 0; stripe < stripeCount; stripe++) {
+                if (taken[stripe] > 0) {
+                    stripes.addAndGet(stripe * PADDING, taken[stripe]);
+                }
+            }
+        }
+        return false;
+    }
+
+    // takes as many of the units as there are, for lowering the stock, returns how many were taken
+    public long drain(long quantity) {
+        int home = homeStripe();
+        long remaining = quantity;
+        for (int i = 0; i < stripeCount && remaining > 0; i++) {
+            remaining -= takeUpTo((home + i) % stripeCount, remaining);
+        }
+        return quantity - remaining;
+    }
+
+    public void add(long quantity) {
+        stripes.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            sum += stripes.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    private long takeUpTo(int stripe, long wanted) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = stripes.get(index);
+            if (current <= 0) {
+                return 0;
+            }
+            long took = Math.min(current, wanted);
+            if (stripes.compareAndSet(index, current, current - took)) {
+                return took;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().threadId() % stripeCount);
+    }
+}
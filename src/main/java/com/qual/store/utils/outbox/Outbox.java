@@ -0,0 +1,54 @@
+package com.qual.store.utils.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qual.store.events.OrderStatusChangedEvent;
+import com.qual.store.events.ReviewChangedEvent;
+import com.qual.store.model.OutboxEvent;
+import com.qual.store.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// records events for the in-process listeners, OutboxDispatcher delivers them after the change is committed
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    public static final String ORDER = "order";
+    public static final String PRODUCT = "product";
+
+    // the events that can be read back from the table, by eventType
+    static final Map<String, Class<?>> EVENT_TYPES = List.of(OrderStatusChangedEvent.class, ReviewChangedEvent.class)
+            .stream()
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    // Boot's mapper, so payloads are written with the modules and settings the rest of the application uses
+    private final ObjectMapper mapper;
+
+    // mandatory: the event commits or rolls back with the change it describes
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, Object event) {
+        String eventType = event.getClass().getSimpleName();
+        if (!EVENT_TYPES.containsKey(eventType)) {
+            throw new IllegalArgumentException("Unknown outbox event type " + eventType);
+        }
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(eventType)
+                    .payload(mapper.writeValueAsString(event))
+                    .availableAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not write outbox event " + eventType, e);
+        }
+    }
+}
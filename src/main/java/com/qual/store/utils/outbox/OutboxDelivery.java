@@ -0,0 +1,59 @@
+package com.qual.store.utils.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qual.store.model.OutboxEvent;
+import com.qual.store.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxDelivery {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher publisher;
+    // the same mapper Outbox wrote the payload with
+    private final ObjectMapper mapper;
+
+    // the listeners run in this transaction, so what they write commits together with the removal of the event.
+    // a listener that throws rolls both back and the event is delivered again later: at least once
+    @Transactional
+    public boolean deliver(Long id) {
+        OutboxEvent event = outboxEventRepository.lockById(id).orElse(null);
+        if (event == null) {
+            return false;
+        }
+
+        publisher.publishEvent(read(event));
+        outboxEventRepository.delete(event);
+        return true;
+    }
+
+    @Transactional
+    public void recordFailure(Long id, String error, long retryDelayMillis) {
+        outboxEventRepository.findById(id).ifPresent(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 1024)));
+            event.setAvailableAt(LocalDateTime.now().plus(
+                    Duration.ofMillis(retryDelayMillis).multipliedBy(1L << Math.min(event.getAttempts() - 1, 16))));
+        });
+    }
+
+    private Object read(OutboxEvent event) {
+        Class<?> eventClass = Outbox.EVENT_TYPES.get(event.getEventType());
+        if (eventClass == null) {
+            throw new IllegalStateException("Unknown outbox event type " + event.getEventType());
+        }
+        try {
+            return mapper.readValue(event.getPayload(), eventClass);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.qual.store.utils.outbox;
+
+import com.qual.store.config.OutboxProperties;
+import com.qual.store.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// polls outbox_events and hands every event to OutboxDelivery. several instances can poll at once: an event locked
+// by one of them is skipped by the others, and only the oldest event of an aggregate is ever picked up
+public class OutboxDispatcher {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final OutboxProperties properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDelivery outboxDelivery;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public OutboxDispatcher(OutboxProperties properties, OutboxEventRepository outboxEventRepository,
+                            OutboxDelivery outboxDelivery) {
+        this.properties = properties;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDelivery = outboxDelivery;
+    }
+
+    // drains the table: the next event of an aggregate becomes its oldest once the previous one is delivered
+    @Scheduled(fixedDelayString = "${store.outbox.poll-interval-millis:500}")
+    public int dispatch() {
+        int total = 0;
+        int deliveredInBatch;
+        do {
+            deliveredInBatch = 0;
+            List<Long> ids = outboxEventRepository.findDispatchableIds(LocalDateTime.now(),
+                    properties.getMaxAttempts(), properties.getBatchSize());
+            for (Long id : ids) {
+                try {
+                    if (outboxDelivery.deliver(id)) {
+                        deliveredInBatch++;
+                    }
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("could not deliver outbox event {}: {}", id, e.getMessage());
+                    outboxDelivery.recordFailure(id, e.getMessage(), properties.getRetryDelayMillis());
+                }
+            }
+            total += deliveredInBatch;
+        } while (deliveredInBatch > 0);
+
+        delivered.addAndGet(total);
+        return total;
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getDead() {
+        return outboxEventRepository.countByAttemptsGreaterThanEqual(properties.getMaxAttempts());
+    }
+}
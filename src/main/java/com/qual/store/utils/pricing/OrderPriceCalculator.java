@@ -0,0 +1,58 @@
+package com.qual.store.utils.pricing;
+
+import com.qual.store.config.PricingProperties;
+import com.qual.store.model.Order;
+import com.qual.store.model.OrderItem;
+import com.qual.store.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(PricingProperties.class)
+public class OrderPriceCalculator {
+
+    private final PricingProperties properties;
+
+    public static long toCents(double amount) {
+        return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // copies the product's current price and discount to the line, later price changes do not move the order
+    public void priceLine(OrderItem orderItem) {
+        Product product = orderItem.getProduct();
+        long unitPriceCents = toCents(product.getPrice());
+        orderItem.setUnitPriceCents(unitPriceCents);
+        orderItem.setUnitDiscountCents(BigDecimal.valueOf(unitPriceCents)
+                .multiply(BigDecimal.valueOf(product.getDiscountPercentage()))
+                .movePointLeft(2)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact());
+    }
+
+    public void addLine(Order order, OrderItem orderItem) {
+        priceLine(orderItem);
+        changeQuantity(order, orderItem, 0, orderItem.getQuantity());
+    }
+
+    public void removeLine(Order order, OrderItem orderItem) {
+        changeQuantity(order, orderItem, orderItem.getQuantity(), 0);
+    }
+
+    // applies only the difference of one line, whatever the size of the order
+    public void changeQuantity(Order order, OrderItem orderItem, int oldQuantity, int newQuantity) {
+        long difference = (long) newQuantity - oldQuantity;
+        order.setSubtotalCents(order.getSubtotalCents() + difference * orderItem.getUnitPriceCents());
+        order.setDiscountCents(order.getDiscountCents() + difference * orderItem.getUnitDiscountCents());
+
+        long discountedCents = order.getSubtotalCents() - order.getDiscountCents();
+        boolean freeDelivery = properties.getFreeDeliveryFromCents() > 0
+                && discountedCents >= properties.getFreeDeliveryFromCents();
+        order.setDeliveryCents(order.getSubtotalCents() == 0 || freeDelivery ? 0 : properties.getDeliveryCents());
+        order.setDeliveryPrice(order.getTotalCents() / 100.0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.qual.store.utils.pricing;
+
+import com.qual.store.config.PricingProperties;
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import com.qual.store.utils.datasource.WorkloadContext;
+import com.qual.store.utils.datasource.WorkloadPool;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// rebuilds the cent amounts of all orders from their lines in the background, one short transaction per id range
+@Component
+@RequiredArgsConstructor
+public class OrderTotalsRepairJob {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PricingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // false while a run is still going, a started run is then handed to run()
+    public boolean tryStart() {
+        return running.compareAndSet(false, true);
+    }
+
+    // not @Workload: the aspect would set the pool on the caller's thread, before @Async hands the run over
+    @Async
+    public void run() {
+        boolean entered = WorkloadContext.enter(WorkloadPool.REPORTS);
+        try {
+            long maxId = orderRepository.findMaxId();
+            int chunkSize = properties.getRepairChunkSize();
+            int repaired = 0;
+            for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+                repaired += repairChunk(fromId, fromId + chunkSize - 1);
+                log.debug("recomputed order totals up to id {} of {}", fromId + chunkSize - 1, maxId);
+            }
+            log.info("recomputed the totals of {} orders", repaired);
+        } catch (RuntimeException e) {
+            log.error("recomputing the order totals failed", e);
+        } finally {
+            if (entered) {
+                WorkloadContext.leave();
+            }
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // the orders of the range are locked first: a line change waits for the chunk instead of being overwritten by
+    // sums read before it
+    private int repairChunk(long fromId, long toId) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            orderRepository.lockRange(fromId, toId);
+            orderItemRepository.priceUnpricedLines(fromId, toId);
+            int orders = orderRepository.recomputeSubtotals(fromId, toId);
+            orderRepository.recomputeDelivery(fromId, toId, properties.getDeliveryCents(),
+                    properties.getFreeDeliveryFromCents());
+            orderRepository.recomputeTotals(fromId, toId);
+            return orders;
+        });
+        return repaired == null ? 0 : repaired;
+    }
+}
@@ -0,0 +1,9 @@
+-- orders from before updated_at was kept count as changed on their start date. with the column always set,
+-- BasketReaper compares it directly and range-scans idx_orders_status_updated_at
+update orders
+set updated_at = cast(start_date as timestamp)
+where updated_at is null;
+
+alter table orders
+    alter column updated_at set default current_timestamp,
+    alter column updated_at set not null;
@@ -0,0 +1,90 @@
+-- the schema as hibernate's ddl-auto=update created it before flyway took over. databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and get every later migration
+
+create table app_users
+(
+    id         bigint generated by default as identity primary key,
+    username   varchar(255) unique,
+    first_name varchar(255),
+    last_name  varchar(255),
+    email      varchar(255) unique,
+    password   varchar(255),
+    role       varchar(255)
+);
+
+create table categories
+(
+    id   bigint generated by default as identity primary key,
+    name varchar(255) not null
+);
+
+create table products
+(
+    id                  bigint generated by default as identity primary key,
+    name                varchar(255)     not null,
+    description         varchar(255)     not null,
+    price               double precision not null,
+    units_in_stock      bigint           not null,
+    discount_percentage double precision not null,
+    create_time         timestamp(6),
+    update_time         timestamp(6),
+    category_id         bigint references categories,
+    user_id             bigint references app_users
+);
+
+create table user_favorite_products
+(
+    user_id    bigint not null references app_users,
+    product_id bigint not null references products,
+    primary key (user_id, product_id)
+);
+
+create table useradress
+(
+    id           bigint generated by default as identity primary key,
+    first_name   varchar(255),
+    last_name    varchar(255),
+    phone_number varchar(255),
+    address      varchar(255),
+    city         varchar(255),
+    county       varchar(255),
+    user_id      bigint references app_users
+);
+
+create table image_model
+(
+    id         bigint generated by default as identity primary key,
+    name       varchar(255) unique,
+    type       varchar(255),
+    pic_byte   bytea,
+    product_id bigint references products
+);
+
+create table reviews
+(
+    id         bigint generated by default as identity primary key,
+    rating     double precision not null,
+    title      varchar(255) unique,
+    comment    varchar(255),
+    date       timestamp(6),
+    product_id bigint references products,
+    user_id    bigint references app_users
+);
+
+create table orders
+(
+    id             bigint generated by default as identity primary key,
+    delivery_price double precision not null,
+    start_date     date             not null,
+    delivery_date  date,
+    status         varchar(255)     not null,
+    user_id        bigint references app_users
+);
+
+create table order_items
+(
+    id         bigint generated by default as identity primary key,
+    quantity   integer not null,
+    product_id bigint  not null references products,
+    order_id   bigint references orders
+);
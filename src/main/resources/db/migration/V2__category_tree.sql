@@ -0,0 +1,9 @@
+-- categories form a tree, path holds the ids from the root down, e.g. "/1/5/12/"
+alter table categories
+    add column parent_id bigint references categories,
+    add column path      varchar(1024);
+
+-- the categories that existed before are roots
+update categories set path = '/' || id || '/' where path is null;
+
+create index idx_categories_path on categories (path);
@@ -0,0 +1,14 @@
+-- order amounts in cents. existing rows start at 0 and are filled by POST /api/orders/totals/recompute
+alter table orders
+    add column subtotal_cents bigint default 0 not null,
+    add column discount_cents bigint default 0 not null,
+    add column delivery_cents bigint default 0 not null,
+    add column updated_at     timestamp(6);
+
+alter table order_items
+    add column unit_price_cents    bigint default 0 not null,
+    add column unit_discount_cents bigint default 0 not null,
+    add column created_at          timestamp(6);
+
+create index idx_order_items_order_id on order_items (order_id);
+create index idx_orders_status_updated_at on orders (status, updated_at);
@@ -0,0 +1,8 @@
+-- stock changes of hot products granted from memory and not applied to products.units_in_stock yet
+create table stock_journal
+(
+    id         bigint generated by default as identity primary key,
+    product_id bigint not null,
+    delta      bigint not null,
+    created_at timestamp(6)
+);
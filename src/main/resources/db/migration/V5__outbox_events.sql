@@ -0,0 +1,14 @@
+create table outbox_events
+(
+    id             bigint generated by default as identity primary key,
+    aggregate_type varchar(32)  not null,
+    aggregate_id   bigint       not null,
+    event_type     varchar(64)  not null,
+    payload        text         not null,
+    created_at     timestamp(6),
+    available_at   timestamp(6) not null,
+    attempts       integer      not null,
+    last_error     varchar(1024)
+);
+
+create index idx_outbox_events_aggregate on outbox_events (aggregate_type, aggregate_id, id);
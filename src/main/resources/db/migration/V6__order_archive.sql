@@ -0,0 +1,30 @@
+-- DELIVERED and CANCELLED orders moved by OrderArchiver, keeping their ids
+create table orders_archive
+(
+    id             bigint generated by default as identity primary key,
+    delivery_price double precision not null,
+    subtotal_cents bigint           not null,
+    discount_cents bigint           not null,
+    delivery_cents bigint           not null,
+    start_date     date             not null,
+    delivery_date  date,
+    status         varchar(255)     not null,
+    user_id        bigint,
+    updated_at     timestamp(6),
+    archived_at    timestamp(6)     not null
+);
+
+create index idx_orders_archive_user_id on orders_archive (user_id);
+
+create table order_items_archive
+(
+    id                  bigint generated by default as identity primary key,
+    quantity            integer not null,
+    unit_price_cents    bigint  not null,
+    unit_discount_cents bigint  not null,
+    product_id          bigint,
+    order_id            bigint references orders_archive,
+    created_at          timestamp(6)
+);
+
+create index idx_order_items_archive_order_id on order_items_archive (order_id);
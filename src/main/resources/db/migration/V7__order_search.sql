@@ -0,0 +1,3 @@
+-- keyset pages of a user's orders newest first, and the start date filter of the order search
+create index idx_orders_user_id on orders (user_id, id);
+create index idx_orders_start_date on orders (start_date);
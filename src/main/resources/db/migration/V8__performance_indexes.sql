@@ -0,0 +1,27 @@
+-- indexes hibernate never created. "if not exists" because some of them may have been added by hand already
+
+-- foreign keys, for the joins and for deletes of the referenced rows
+create index if not exists idx_products_category_id on products (category_id);
+create index if not exists idx_products_user_id on products (user_id);
+create index if not exists idx_order_items_product_id on order_items (product_id);
+create index if not exists idx_reviews_product_id on reviews (product_id);
+create index if not exists idx_reviews_user_id on reviews (user_id);
+create index if not exists idx_image_model_product_id on image_model (product_id);
+create index if not exists idx_useradress_user_id on useradress (user_id);
+create index if not exists idx_categories_parent_id on categories (parent_id);
+-- the primary key starts with user_id
+create index if not exists idx_user_favorite_products_product_id on user_favorite_products (product_id);
+-- summed per product by the stock reads while hot products are on
+create index if not exists idx_stock_journal_product_id on stock_journal (product_id);
+
+-- product search: findAllByNameContainingIgnoreCase runs upper(name) like upper('%...%'), which a btree can't serve
+create extension if not exists pg_trgm;
+create index if not exists idx_products_name_trgm on products using gin (upper(name) gin_trgm_ops);
+
+-- prefix likes (category subtrees, order search by username) only use a btree with pattern ops outside the C locale
+create index if not exists idx_categories_path_pattern on categories (path varchar_pattern_ops);
+create index if not exists idx_app_users_username_pattern on app_users (username varchar_pattern_ops);
+
+-- the basket of a user, and the order items BasketReaper deletes as orphans
+create index if not exists idx_orders_active_user_id on orders (user_id, id) where status = 'ACTIVE';
+create index if not exists idx_order_items_orphans on order_items (id) where order_id is null;
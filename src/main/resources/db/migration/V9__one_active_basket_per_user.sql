@@ -0,0 +1,42 @@
+-- one ACTIVE basket per user. adds that raced before the user row was locked could create a second basket, or a
+-- second line of a product in a basket: the lines move to the oldest basket and lines of one product are summed
+
+update order_items oi
+set order_id = b.keep_id
+from (select id, min(id) over (partition by user_id) as keep_id
+      from orders
+      where status = 'ACTIVE' and user_id is not null) b
+where oi.order_id = b.id and b.id <> b.keep_id;
+
+delete from orders o
+where o.status = 'ACTIVE'
+  and exists (select 1 from orders k where k.status = 'ACTIVE' and k.user_id = o.user_id and k.id < o.id);
+
+update order_items oi
+set quantity = d.quantity
+from (select min(l.id) as keep_id, sum(l.quantity) as quantity
+      from order_items l
+      join orders o on o.id = l.order_id
+      where o.status = 'ACTIVE'
+      group by l.order_id, l.product_id
+      having count(*) > 1) d
+where oi.id = d.keep_id;
+
+delete from order_items oi
+using orders o, order_items k
+where o.id = oi.order_id and o.status = 'ACTIVE'
+  and k.order_id = oi.order_id and k.product_id = oi.product_id and k.id < oi.id;
+
+-- the merged lines keep the price of the oldest one. delivery is left as it was, POST /api/orders/totals/recompute
+-- sets it from the new subtotal
+update orders o
+set subtotal_cents = coalesce((select sum(oi.quantity * oi.unit_price_cents) from order_items oi where oi.order_id = o.id), 0),
+    discount_cents = coalesce((select sum(oi.quantity * oi.unit_discount_cents) from order_items oi where oi.order_id = o.id), 0)
+where o.status = 'ACTIVE';
+
+update orders
+set delivery_price = (subtotal_cents - discount_cents + delivery_cents) / 100.0
+where status = 'ACTIVE';
+
+drop index if exists idx_orders_active_user_id;
+create unique index idx_orders_active_user_id on orders (user_id) where status = 'ACTIVE';
@@ -2,8 +2,15 @@ package com.qual.store.controller;
 
 import com.qual.store.converter.CategoryConverter;
 import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.CategoryTreeDto;
+import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.dto.projection.CategorySummary;
+import com.qual.store.dto.projection.CategoryTreeRow;
 import com.qual.store.model.Category;
 import com.qual.store.service.CategoryService;
+import com.qual.store.service.ProductService;
+import com.qual.store.utils.categories.CategoryTree;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +37,9 @@ class CategoryControllerTest {
     @Mock
     private CategoryConverter categoryConverter;
 
+    @Mock
+    private ProductService productService;
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -46,20 +56,19 @@ class CategoryControllerTest {
     @Test
     public void getAllCategoriesTest() throws Exception {
         // given
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("Test Category");
+        CategorySummary categorySummary = new CategorySummary(1L, "Test Category", 2L);
 
         CategoryDto categoryDto = new CategoryDto();
         categoryDto.setId(1L);
         categoryDto.setName("Test Category");
+        categoryDto.setProductCount(2L);
 
-        List<Category> categoryList = new ArrayList<>();
-        categoryList.add(category);
+        List<CategorySummary> categoryList = new ArrayList<>();
+        categoryList.add(categorySummary);
 
         // when
-        when(categoryService.getAllCategories()).thenReturn(categoryList);
-        when(categoryConverter.convertModelToDto(category)).thenReturn(categoryDto);
+        when(categoryService.getCategorySummaries()).thenReturn(categoryList);
+        when(categoryConverter.convertSummaryToDto(categorySummary)).thenReturn(categoryDto);
 
         // then
         mockMvc.perform(get("/api/categories")
@@ -67,10 +76,114 @@ class CategoryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(categoryDto.getId()))
-                .andExpect(jsonPath("$[0].name").value(categoryDto.getName()));
+                .andExpect(jsonPath("$[0].name").value(categoryDto.getName()))
+                .andExpect(jsonPath("$[0].productCount").value(2));
 
-        verify(categoryService, times(1)).getAllCategories();
-        verify(categoryConverter, times(1)).convertModelToDto(category);
+        verify(categoryService, times(1)).getCategorySummaries();
+        verify(categoryService, never()).getAllCategories();
+        verify(categoryConverter, times(1)).convertSummaryToDto(categorySummary);
+    }
+
+    @Test
+    public void getProductsOfCategoryTest() throws Exception {
+        // given
+        ProductDto productDto = new ProductDto();
+        productDto.setId(3L);
+        PaginatedProductResponse response = PaginatedProductResponse.builder()
+                .products(List.of(productDto))
+                .numberOfItems(1L)
+                .numberOfPages(1)
+                .build();
+
+        // when
+        when(productService.getProductsByCategory(1L, 0, 20, "name")).thenReturn(response);
+
+        // then
+        mockMvc.perform(get("/api/categories/{categoryId}/products", 1L)
+                        .param("pageSize", "20")
+                        .param("sortBy", "name")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(3))
+                .andExpect(jsonPath("$.numberOfItems").value(1));
+
+        verify(productService, times(1)).getProductsByCategory(1L, 0, 20, "name");
+    }
+
+    @Test
+    public void getProductsOfCategorySubtreeTest() throws Exception {
+        // given
+        PaginatedProductResponse response = PaginatedProductResponse.builder()
+                .products(List.of())
+                .numberOfItems(0L)
+                .numberOfPages(0)
+                .build();
+
+        // when
+        when(productService.getProductsInCategorySubtree(1L, 0, 10, "id")).thenReturn(response);
+
+        // then
+        mockMvc.perform(get("/api/categories/{categoryId}/products", 1L)
+                        .param("includeSubcategories", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numberOfItems").value(0));
+
+        verify(productService, times(1)).getProductsInCategorySubtree(1L, 0, 10, "id");
+        verify(productService, never()).getProductsByCategory(anyLong(), anyInt(), anyInt(), anyString());
+    }
+
+    @Test
+    public void getCategoryTreeTest() throws Exception {
+        // given
+        CategoryTree tree = CategoryTree.of(List.of(
+                new CategoryTreeRow(1L, "Electronics", null, "/1/"),
+                new CategoryTreeRow(2L, "Phones", 1L, "/1/2/")
+        ));
+        CategoryTreeDto categoryTreeDto = CategoryTreeDto.builder()
+                .id(1L)
+                .name("Electronics")
+                .path("/1/")
+                .children(List.of(CategoryTreeDto.builder().id(2L).name("Phones").path("/1/2/").children(List.of()).build()))
+                .build();
+
+        // when
+        when(categoryService.getCategoryTree()).thenReturn(tree);
+        when(categoryConverter.convertTreeNodeToDto(tree.getRoots().get(0))).thenReturn(categoryTreeDto);
+
+        // then
+        mockMvc.perform(get("/api/categories/tree")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].children[0].path").value("/1/2/"));
+
+        verify(categoryService, times(1)).getCategoryTree();
+    }
+
+    @Test
+    public void moveCategoryTest() throws Exception {
+        // given
+        Category category = new Category();
+        category.setId(2L);
+        category.setName("Phones");
+
+        CategoryDto categoryDto = new CategoryDto();
+        categoryDto.setId(2L);
+        categoryDto.setName("Phones");
+
+        // when
+        when(categoryService.moveCategory(2L, 1L)).thenReturn(category);
+        when(categoryConverter.convertModelToDto(category)).thenReturn(categoryDto);
+
+        // then
+        mockMvc.perform(put("/api/categories/{categoryId}/parent", 2L)
+                        .param("parentId", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2));
+
+        verify(categoryService, times(1)).moveCategory(2L, 1L);
     }
 
     @Test
@@ -112,7 +225,7 @@ class CategoryControllerTest {
         categoryDto.setName("Test Category");
 
         // when
-        when(categoryService.saveCategory(anyString())).thenReturn(category);
+        when(categoryService.saveCategory(anyString(), isNull())).thenReturn(category);
         when(categoryConverter.convertModelToDto(category)).thenReturn(categoryDto);
 
         mockMvc.perform(post("/api/categories")
@@ -123,7 +236,7 @@ class CategoryControllerTest {
                 .andExpect(jsonPath("$.id").value(categoryDto.getId()))
                 .andExpect(jsonPath("$.name").value(categoryDto.getName()));
 
-        verify(categoryService, times(1)).saveCategory("Test Category");
+        verify(categoryService, times(1)).saveCategory("Test Category", null);
         verify(categoryConverter, times(1)).convertModelToDto(category);
     }
 
@@ -6,11 +6,12 @@ import com.qual.store.converter.lazyConverter.OrderWithOrderItemsConverter;
 import com.qual.store.dto.OrderDto;
 import com.qual.store.dto.OrderItemDto;
 import com.qual.store.dto.lazyDto.OrderWithOrderItemDto;
+import com.qual.store.dto.paginated.OrderSearchResponse;
 import com.qual.store.dto.paginated.PaginatedOrderResponse;
+import com.qual.store.dto.request.OrderSearchRequest;
 import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
 import com.qual.store.model.enums.OrderStatus;
-import com.qual.store.service.OrderItemService;
 import com.qual.store.service.OrderService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,9 +40,6 @@ class OrderControllerTest {
     @Mock
     private OrderService orderService;
 
-    @Mock
-    private OrderItemService orderItemService;
-
     @Mock
     private OrderConverter orderConverter;
 
@@ -101,9 +99,6 @@ class OrderControllerTest {
         Long orderItemId = 1L;
         Long productId = 1L;
         Integer quantity = 1;
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.ACTIVE);
 
         OrderItem orderItem = new OrderItem();
         orderItem.setId(orderItemId);
@@ -114,8 +109,7 @@ class OrderControllerTest {
         orderItemDto.setQuantity(1);
 
         // when
-        when(orderItemService.addOrderItem(productId, quantity)).thenReturn(orderItem);
-        when(orderService.addToOrder(orderItemId)).thenReturn(order);
+        when(orderService.addToBasket(productId, quantity)).thenReturn(orderItem);
         when(orderItemConverter.convertModelToDto(orderItem)).thenReturn(orderItemDto);
 
         // then
@@ -127,8 +121,7 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.id").value(orderItemDto.getId()))
                 .andExpect(jsonPath("$.quantity").value(orderItemDto.getQuantity()));
 
-        verify(orderItemService, times(1)).addOrderItem(productId, quantity);
-        verify(orderService, times(1)).addToOrder(orderItemId);
+        verify(orderService, times(1)).addToBasket(productId, quantity);
         verify(orderItemConverter, times(1)).convertModelToDto(orderItem);
     }
 
@@ -179,20 +172,15 @@ class OrderControllerTest {
     @Test
     public void getAllOrdersByUsernameTest() throws Exception {
         // given
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.ACTIVE);
-
         OrderDto orderDto = new OrderDto();
         orderDto.setId(1L);
         orderDto.setStatus("ACTIVE");
 
-        List<Order> orderList = new ArrayList<>();
-        orderList.add(order);
+        List<OrderDto> orderList = new ArrayList<>();
+        orderList.add(orderDto);
 
         // when
-        when(orderService.getAllOrdersByUser()).thenReturn(orderList);
-        when(orderConverter.convertModelToDto(order)).thenReturn(orderDto);
+        when(orderService.getAllOrdersByUser(false)).thenReturn(orderList);
 
         // then
         mockMvc.perform(get("/api/orders/me")
@@ -203,7 +191,34 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$[0].status").value(orderDto.getStatus()))
                 .andExpect(jsonPath("$.length()").value(orderList.size()));
 
-        verify(orderService, times(1)).getAllOrdersByUser();
+        verify(orderService, times(1)).getAllOrdersByUser(false);
+    }
+
+    @Test
+    public void getAllOrdersByUsernameIncludingArchivedTest() throws Exception {
+        // given
+        OrderDto orderDto = new OrderDto();
+        orderDto.setId(2L);
+        orderDto.setStatus("PLACED");
+
+        OrderDto archivedOrderDto = new OrderDto();
+        archivedOrderDto.setId(1L);
+        archivedOrderDto.setStatus("DELIVERED");
+
+        // when
+        when(orderService.getAllOrdersByUser(true)).thenReturn(List.of(orderDto, archivedOrderDto));
+
+        // then
+        mockMvc.perform(get("/api/orders/me")
+                        .param("includeArchived", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(orderDto.getId()))
+                .andExpect(jsonPath("$[1].id").value(archivedOrderDto.getId()))
+                .andExpect(jsonPath("$[1].status").value(archivedOrderDto.getStatus()));
+
+        verify(orderService, times(1)).getAllOrdersByUser(true);
     }
 
     @Test
@@ -342,46 +357,51 @@ class OrderControllerTest {
     }
 
     @Test
-    void searchOrdersByUsernameTest() throws Exception {
+    void searchOrdersTest() throws Exception {
         // given
-        String username = "testuser";
-
-        Order order1 = new Order();
-        order1.setId(1L);
-        order1.setStatus(OrderStatus.ACTIVE);
-
-        Order order2 = new Order();
-        order2.setId(2L);
-        order2.setStatus(OrderStatus.DELIVERED);
-
         OrderDto orderDto1 = new OrderDto();
-        orderDto1.setId(1L);
-        orderDto1.setStatus("ACTIVE");
+        orderDto1.setId(9L);
+        orderDto1.setStatus("DELIVERED");
 
         OrderDto orderDto2 = new OrderDto();
-        orderDto2.setId(2L);
+        orderDto2.setId(4L);
         orderDto2.setStatus("DELIVERED");
 
-        List<OrderDto> orderList = new ArrayList<>();
-        orderList.add(orderDto1);
-        orderList.add(orderDto2);
+        OrderSearchResponse response = OrderSearchResponse.builder()
+                .orders(List.of(orderDto1, orderDto2))
+                .nextCursor(4L)
+                .build();
+        OrderSearchRequest request = OrderSearchRequest.builder()
+                .user("test")
+                .status("DELIVERED")
+                .from(LocalDate.of(2023, 7, 1))
+                .to(LocalDate.of(2023, 7, 31))
+                .maxTotalCents(5000L)
+                .cursor(12L)
+                .size(2)
+                .build();
 
         // when
-        when(orderService.searchOrdersByUsername(username)).thenReturn(orderList);
+        when(orderService.searchOrders(request)).thenReturn(response);
 
         // then
         mockMvc.perform(get("/api/orders/search")
-                        .param("user", username)
+                        .param("user", "test")
+                        .param("status", "DELIVERED")
+                        .param("from", "2023-07-01")
+                        .param("to", "2023-07-31")
+                        .param("maxTotalCents", "5000")
+                        .param("cursor", "12")
+                        .param("size", "2")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].id").value(orderDto1.getId()))
-                .andExpect(jsonPath("$[0].status").value(orderDto1.getStatus()))
-                .andExpect(jsonPath("$[1].id").value(orderDto2.getId()))
-                .andExpect(jsonPath("$[1].status").value(orderDto2.getStatus()))
-                .andExpect(jsonPath("$.length()").value(orderList.size()));
+                .andExpect(jsonPath("$.orders[0].id").value(orderDto1.getId()))
+                .andExpect(jsonPath("$.orders[1].id").value(orderDto2.getId()))
+                .andExpect(jsonPath("$.orders.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(4));
 
-        verify(orderService, times(1)).searchOrdersByUsername(username);
+        verify(orderService, times(1)).searchOrders(request);
     }
 
     @AfterEach
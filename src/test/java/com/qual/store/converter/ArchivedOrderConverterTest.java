@@ -0,0 +1,105 @@
+package com.qual.store.converter;
+
+import com.qual.store.dto.OrderDto;
+import com.qual.store.model.AppUser;
+import com.qual.store.model.ArchivedOrder;
+import com.qual.store.model.ArchivedOrderItem;
+import com.qual.store.model.Product;
+import com.qual.store.model.enums.OrderStatus;
+import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArchivedOrderConverterTest {
+
+    @Mock
+    private AppUserRepository appUserRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ArchivedOrderConverter archivedOrderConverter;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void setup() {
+        autoCloseable = org.mockito.MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void convertModelsToDtosLoadsUsersAndProductsOnceTest() {
+        // given
+        AppUser appUser = AppUser.builder()
+                .firstName("first")
+                .lastName("last")
+                .email("user@mail.com")
+                .build();
+        appUser.setId(1L);
+        Product product = Product.builder()
+                .name("product")
+                .build();
+        product.setId(10L);
+
+        ArchivedOrder first = archivedOrder(2L, line(20L, 10L), line(21L, 11L));
+        ArchivedOrder second = archivedOrder(3L, line(22L, 10L), line(23L, null));
+
+        // when
+        when(appUserRepository.findAllById(Set.of(1L))).thenReturn(List.of(appUser));
+        when(productRepository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(product));
+        List<OrderDto> actualResult = archivedOrderConverter.convertModelsToDtos(List.of(first, second));
+
+        // then
+        assertEquals(2, actualResult.size());
+        assertEquals(2L, actualResult.get(0).getId());
+        assertEquals("first last", actualResult.get(0).getUserName());
+        assertEquals("user@mail.com", actualResult.get(1).getUserEmail());
+        assertEquals(List.of(20L, 21L), actualResult.get(0).getOrderItems());
+        // product 11 was deleted, line 23 never had one
+        assertEquals(Arrays.asList("product", null), actualResult.get(0).getProductNames());
+        assertEquals(Arrays.asList("product", null), actualResult.get(1).getProductNames());
+        verify(appUserRepository, times(1)).findAllById(Set.of(1L));
+        verify(productRepository, times(1)).findAllById(Set.of(10L, 11L));
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    private ArchivedOrder archivedOrder(Long id, ArchivedOrderItem... lines) {
+        ArchivedOrder order = ArchivedOrder.builder()
+                .status(OrderStatus.DELIVERED)
+                .userId(1L)
+                .orderItems(List.of(lines))
+                .build();
+        order.setId(id);
+        return order;
+    }
+
+    private ArchivedOrderItem line(Long id, Long productId) {
+        ArchivedOrderItem orderItem = ArchivedOrderItem.builder()
+                .quantity(1)
+                .productId(productId)
+                .build();
+        orderItem.setId(id);
+        return orderItem;
+    }
+
+    @AfterEach
+    public void close() throws Exception {
+        autoCloseable.close();
+    }
+}
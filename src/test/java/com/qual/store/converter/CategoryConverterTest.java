@@ -1,6 +1,7 @@
 package com.qual.store.converter;
 
 import com.qual.store.dto.CategoryDto;
+import com.qual.store.dto.projection.CategorySummary;
 import com.qual.store.model.Category;
 import com.qual.store.model.Product;
 import com.qual.store.repository.ProductRepository;
@@ -16,6 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class CategoryConverterTest {
@@ -87,6 +89,32 @@ class CategoryConverterTest {
 
         // then
         assertEquals(expectedCategoryDto, actualCategoryDto);
+        assertEquals(2L, actualCategoryDto.getProductCount());
+    }
+
+    @Test
+    public void convertModelWithoutProductsToDtoTest() {
+        Category category = Category.builder()
+                .name("Category")
+                .build();
+        category.setId(1L);
+
+        CategoryDto actualCategoryDto = categoryConverter.convertModelToDto(category);
+
+        assertEquals("Category", actualCategoryDto.getName());
+        assertEquals(1L, actualCategoryDto.getId());
+        assertNull(actualCategoryDto.getProductIds());
+        assertNull(actualCategoryDto.getProductCount());
+    }
+
+    @Test
+    public void convertSummaryToDtoTest() {
+        CategoryDto actualCategoryDto = categoryConverter.convertSummaryToDto(new CategorySummary(1L, "Category", 5L));
+
+        assertEquals(1L, actualCategoryDto.getId());
+        assertEquals("Category", actualCategoryDto.getName());
+        assertEquals(5L, actualCategoryDto.getProductCount());
+        assertNull(actualCategoryDto.getProductIds());
     }
 
     @AfterEach
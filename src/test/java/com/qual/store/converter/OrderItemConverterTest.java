@@ -6,6 +6,7 @@ import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
 import com.qual.store.model.Product;
 import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.ImageRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -15,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -28,6 +30,9 @@ public class OrderItemConverterTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ImageRepository imageRepository;
+
     @InjectMocks
     private OrderItemConverter orderItemConverter;
 
@@ -109,6 +114,7 @@ public class OrderItemConverterTest {
         expectedOrderItemDto.setId(orderItemId);
 
         // when
+        when(imageRepository.findNamesByProductId(productId)).thenReturn(List.of("image.png"));
         OrderItemDto actualOrderItemDto = orderItemConverter.convertModelToDto(orderItem);
 
         // then
@@ -116,6 +122,8 @@ public class OrderItemConverterTest {
         assertEquals(expectedOrderItemDto.getProductId(), actualOrderItemDto.getProductId());
         assertEquals(expectedOrderItemDto.getOrderId(), actualOrderItemDto.getOrderId());
         assertEquals(expectedOrderItemDto.getId(), actualOrderItemDto.getId());
+        assertEquals("image.png", actualOrderItemDto.getImageName());
+        verify(imageRepository, times(1)).findNamesByProductId(productId);
     }
 
     @AfterEach
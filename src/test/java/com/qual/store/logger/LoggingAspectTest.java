@@ -0,0 +1,110 @@
+package com.qual.store.logger;
+
+import com.qual.store.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoggingAspectTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private MethodTimingProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    private LoggingAspect loggingAspect;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        closeable = MockitoAnnotations.openMocks(this);
+        properties = new MethodTimingProperties();
+        properties.setPercentileHistogram(false);
+        meterRegistry = new SimpleMeterRegistry();
+        when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(String.class.getMethod("trim"));
+        loggingAspect = new LoggingAspect(properties, meterRegistryProvider);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    public void recordsSuccessTimerTest() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", loggingAspect.timeAndTraceAdvice(joinPoint));
+        assertEquals("result", loggingAspect.timeAndTraceAdvice(joinPoint));
+
+        Timer timer = meterRegistry.find(LoggingAspect.TIMER_NAME)
+                .tags("class", "String", "method", "trim", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void recordsErrorTimerAndRethrowsTest() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> loggingAspect.timeAndTraceAdvice(joinPoint));
+
+        Timer timer = meterRegistry.find(LoggingAspect.TIMER_NAME).tags("outcome", "error").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void disabledSkipsTimingTest() throws Throwable {
+        properties.setEnabled(false);
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", loggingAspect.timeAndTraceAdvice(joinPoint));
+
+        assertNull(meterRegistry.find(LoggingAspect.TIMER_NAME).timer());
+        verify(meterRegistryProvider, never()).getIfAvailable(any());
+    }
+
+    @Test
+    public void summarizeArgsIsBoundedTest() {
+        Product product = new Product();
+        product.setId(7L);
+        MockMultipartFile file = new MockMultipartFile("image", "photo.png", "image/png", new byte[1024]);
+        properties.setMaxArgLength(4);
+        properties.setMaxLoggedArgs(4);
+
+        String summary = loggingAspect.summarizeArgs(
+                new Object[]{product, file, new ArrayList<>(List.of(1, 2, 3)), "abcdefgh", 42L, null});
+
+        assertEquals("[Product[id=7], MultipartFile[name=photo.png, size=1024], ArrayList[size=3], abcd..., "
+                + "... 2 more]", summary);
+    }
+}
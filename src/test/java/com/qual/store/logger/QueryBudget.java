@@ -0,0 +1,41 @@
+package com.qual.store.logger;
+
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// wraps a call (a service method, a MockMvc perform, ...) and fails when it issues more statements than declared
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static <T> T assertStatementsAtMost(int maxStatements, ThrowingSupplier<T> call) {
+        return assertBudget(maxStatements, Integer.MAX_VALUE, call);
+    }
+
+    // repeatedThreshold: fail when one statement shape is issued this many times (an n+1)
+    public static <T> T assertBudget(int maxStatements, int repeatedThreshold, ThrowingSupplier<T> call) {
+        boolean owner = QueryCounter.start();
+        T result;
+        QueryCounter.QueryCounts counts;
+        try {
+            result = assertDoesNotThrow(call);
+        } finally {
+            counts = owner ? QueryCounter.stop() : QueryCounter.current();
+        }
+
+        if (counts.getStatements() > maxStatements) {
+            fail("expected at most " + maxStatements + " statements but " + counts.getStatements()
+                    + " were issued: " + counts.getShapes());
+        }
+        Map<String, Integer> repeated = counts.getRepeatedShapes(repeatedThreshold);
+        if (!repeated.isEmpty()) {
+            fail("statements repeated " + repeatedThreshold + " times or more: " + repeated);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.qual.store.logger;
+
+import com.qual.store.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+    private final QueryCountingInterceptor interceptor = new QueryCountingInterceptor();
+
+    private QueryBudgetProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    private QueryBudgetFilter queryBudgetFilter;
+
+    @BeforeEach
+    public void setup() {
+        properties = new QueryBudgetProperties();
+        properties.setExposeHeader(true);
+        properties.setRepeatedStatementThreshold(3);
+        meterRegistry = new SimpleMeterRegistry();
+        queryBudgetFilter = new QueryBudgetFilter(properties, meterRegistry);
+    }
+
+    @Test
+    public void countsStatementsPerRequestTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        queryBudgetFilter.doFilter(request, response, (req, res) -> {
+            inspector.inspect("select o from orders o where o.id=?");
+            inspector.inspect("select i from order_items i where i.order_id=?");
+            interceptor.onLoad(new Object(), 1L, null, null, null);
+            res.getWriter().write("{}");
+        });
+
+        assertEquals("2", response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER));
+        assertEquals("1", response.getHeader(QueryBudgetFilter.ENTITY_LOAD_COUNT_HEADER));
+        assertEquals(2.0, meterRegistry.get("store.request.statements").tag("uri", "/api/orders/{id}")
+                .summary().totalAmount());
+        assertNull(QueryCounter.current());
+    }
+
+    @Test
+    public void flagsRepeatedStatementShapesTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/display");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/display");
+
+        queryBudgetFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < 3; i++) {
+                inspector.inspect("select p from products p where p.id=?");
+            }
+        });
+
+        assertEquals(1.0, meterRegistry.get("store.request.repeated.statements")
+                .tag("uri", "/api/orders/display").counter().count());
+    }
+
+    @Test
+    public void headersHiddenByDefaultTest() throws Exception {
+        properties.setExposeHeader(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        queryBudgetFilter.doFilter(new MockHttpServletRequest("GET", "/api/products"), response,
+                (req, res) -> inspector.inspect("select 1"));
+
+        assertNull(response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER));
+    }
+
+    @Test
+    public void parameterListsShareShapeTest() {
+        assertEquals(QueryCounter.shapeOf("select * from products where id in (?, ?)"),
+                QueryCounter.shapeOf("select * from products where id in (?,?,?)"));
+    }
+
+    @Test
+    public void queryBudgetFailsWhenExceededTest() {
+        assertEquals("ok", QueryBudget.assertStatementsAtMost(2, () -> {
+            inspector.inspect("select 1");
+            return "ok";
+        }));
+
+        assertThrows(AssertionFailedError.class, () -> QueryBudget.assertBudget(10, 3, () -> {
+            for (int i = 0; i < 3; i++) {
+                inspector.inspect("select r from reviews r where r.id=?");
+            }
+            return null;
+        }));
+    }
+}
@@ -1,5 +1,6 @@
 package com.qual.store.security.controller;
 
+import com.qual.store.exceptions.PasswordHashingRejectedException;
 import com.qual.store.model.AppUser;
 import com.qual.store.model.enums.RoleName;
 import com.qual.store.repository.AppUserRepository;
@@ -16,6 +17,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -24,6 +26,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +46,9 @@ class AuthenticationControllerTest {
     @Mock
     private JwtTokenUtil jwtTokenUtil;
 
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
     @InjectMocks
     private AuthenticationController authenticationController;
 
@@ -166,6 +172,25 @@ class AuthenticationControllerTest {
         verify(authenticationManager, times(1)).authenticate(any());
     }
 
+    @Test
+    public void loginUserHashingSaturatedTest() throws Exception {
+        String username = "testuser";
+        String password = "testpassword";
+
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new PasswordHashingRejectedException("Too many authentication requests, try again later"));
+
+        mockMvc.perform(post("/auth/login")
+                        .param("username", username)
+                        .param("password", password))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value(true));
+
+        verify(authenticationManager, times(1)).authenticate(any());
+        verify(jwtTokenUtil, never()).generateToken(any());
+    }
+
     @Test
     public void saveUserWithAdminRoleTest() throws Exception {
         String firstName = "John";
@@ -185,6 +210,7 @@ class AuthenticationControllerTest {
         user.setUsername(username);
 
         UserDetails userDetails = mock(UserDetails.class);
+        when(passwordEncoder.encode(password)).thenReturn("encoded");
         when(userDetailsService.createUserDetails(username, password, RoleName.ADMIN)).thenReturn(userDetails);
         when(jwtTokenUtil.generateToken(any())).thenReturn(token);
 
@@ -225,6 +251,7 @@ class AuthenticationControllerTest {
         user.setUsername(username);
 
         UserDetails userDetails = mock(UserDetails.class);
+        when(passwordEncoder.encode(password)).thenReturn("encoded");
         when(userDetailsService.createUserDetails(username, password, RoleName.ADMIN)).thenReturn(userDetails);
         when(jwtTokenUtil.generateToken(any())).thenReturn(token);
 
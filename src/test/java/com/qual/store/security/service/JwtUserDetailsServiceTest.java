@@ -16,6 +16,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static com.qual.store.model.enums.RoleName.ADMIN;
 import static com.qual.store.model.enums.RoleName.USER;
@@ -49,11 +50,11 @@ class JwtUserDetailsServiceTest {
         user.setRole(USER);
 
         // when
-        when(userRepository.findUserByUsername(username)).thenReturn(user);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
         UserDetails userDetails = jwtUserDetailsService.loadUserByUsername(username);
 
         // then
-        verify(userRepository, times(1)).findUserByUsername(username);
+        verify(userRepository, times(1)).findByUsername(username);
         assertEquals(username, userDetails.getUsername());
         assertEquals(password, userDetails.getPassword());
 
@@ -62,6 +63,13 @@ class JwtUserDetailsServiceTest {
         assertEquals(USER.name(), authorities.get(0).getAuthority());
     }
 
+    @Test
+    public void loadUserByUsernameNotFoundTest() {
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> jwtUserDetailsService.loadUserByUsername("missing"));
+    }
+
     @Test
     public void createUserDetailsTest() {
         String username = "testuser";
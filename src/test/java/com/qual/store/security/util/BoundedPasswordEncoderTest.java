@@ -0,0 +1,76 @@
+package com.qual.store.security.util;
+
+import com.qual.store.exceptions.PasswordHashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private ThreadPoolExecutor executor;
+
+    private PasswordEncoder delegate;
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        delegate = mock(PasswordEncoder.class);
+        boundedPasswordEncoder = new BoundedPasswordEncoder(delegate, executor, 1000);
+    }
+
+    @Test
+    public void encodeDelegatesTest() {
+        when(delegate.encode("password")).thenReturn("encoded");
+
+        assertEquals("encoded", boundedPasswordEncoder.encode("password"));
+        verify(delegate, times(1)).encode("password");
+    }
+
+    @Test
+    public void matchesDelegatesTest() {
+        when(delegate.matches("password", "encoded")).thenReturn(true);
+
+        assertTrue(boundedPasswordEncoder.matches("password", "encoded"));
+        assertFalse(boundedPasswordEncoder.matches("other", "encoded"));
+    }
+
+    @Test
+    public void saturatedPoolRejectsTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+        executor.submit(() -> null);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> boundedPasswordEncoder.encode("password"));
+        assertEquals(1, boundedPasswordEncoder.getRejectedCount());
+        assertEquals(1, boundedPasswordEncoder.getQueueDepth());
+
+        release.countDown();
+    }
+
+    @Test
+    public void delegateExceptionIsRethrownTest() {
+        when(delegate.encode("password")).thenThrow(new IllegalArgumentException("bad password"));
+
+        assertThrows(IllegalArgumentException.class, () -> boundedPasswordEncoder.encode("password"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package com.qual.store.security.util;
+
+import com.qual.store.security.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/auth/login");
+        route.setMethod("POST");
+        route.setCapacity(2);
+        route.setRefillPerSecond(0.001);
+
+        properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+    }
+
+    @Test
+    public void requestsAboveCapacityAreRejectedTest() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        assertEquals(200, perform(filter, "POST", "/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "POST", "/auth/login", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform(filter, "POST", "/auth/login", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+        assertEquals(1, filter.getRejectedCount());
+    }
+
+    @Test
+    public void clientsHaveSeparateBucketsTest() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        perform(filter, "POST", "/auth/login", "10.0.0.1");
+        perform(filter, "POST", "/auth/login", "10.0.0.1");
+
+        assertEquals(429, perform(filter, "POST", "/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "POST", "/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    public void authenticatedClientIsLimitedByUsernameTest() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john", null, List.of()));
+
+        perform(filter, "POST", "/auth/login", "10.0.0.1");
+        perform(filter, "POST", "/auth/login", "10.0.0.2");
+
+        assertEquals(429, perform(filter, "POST", "/auth/login", "10.0.0.3").getStatus());
+    }
+
+    @Test
+    public void unmatchedRoutesAreNotLimitedTest() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(filter, "GET", "/auth/login", "10.0.0.1").getStatus());
+            assertEquals(200, perform(filter, "GET", "/api/categories", "10.0.0.1").getStatus());
+        }
+        assertEquals(0, filter.getTrackedClients());
+    }
+
+    @Test
+    public void trackedClientsAreBoundedTest() throws Exception {
+        properties.setMaxClients(2);
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        perform(filter, "POST", "/auth/login", "10.0.0.1");
+        perform(filter, "POST", "/auth/login", "10.0.0.2");
+        perform(filter, "POST", "/auth/login", "10.0.0.3");
+        perform(filter, "POST", "/auth/login", "10.0.0.4");
+
+        assertTrue(filter.getTrackedClients() <= 2);
+    }
+
+    @Test
+    public void admissionControlShedsLoadTest() throws Exception {
+        properties.getAdmission().setMaxInFlight(1);
+        RateLimitFilter filter = new RateLimitFilter(properties);
+
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> nested[0] = perform(filter, "GET", "/api/products/1", "10.0.0.2");
+
+        MockHttpServletRequest request = request("GET", "/api/products/1", "10.0.0.1");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(503, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals(0, filter.getInFlight());
+        assertEquals(1, filter.getShedCount());
+    }
+
+    @Test
+    public void disabledFilterPassesEverythingTest() throws Exception {
+        properties.setEnabled(false);
+        RateLimitFilter filter = new RateLimitFilter(properties);
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(request("POST", "/auth/login", "10.0.0.1"), new MockHttpServletResponse(), chain);
+        }
+
+        verify(chain, times(5)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse perform(RateLimitFilter filter, String method, String path, String ip)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String method, String path, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
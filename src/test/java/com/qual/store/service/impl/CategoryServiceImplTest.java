@@ -1,9 +1,12 @@
 package com.qual.store.service.impl;
 
+import com.qual.store.dto.projection.CategorySummary;
 import com.qual.store.exceptions.CategoryNotFoundException;
+import com.qual.store.exceptions.DeleteCategoryException;
 import com.qual.store.exceptions.ValidatorException;
 import com.qual.store.model.Category;
 import com.qual.store.repository.CategoryRepository;
+import com.qual.store.utils.categories.CategoryTreeCache;
 import com.qual.store.utils.validators.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -16,8 +19,10 @@ import org.mockito.MockitoAnnotations;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +34,9 @@ class CategoryServiceImplTest {
     @Mock
     private Validator<Category> validator;
 
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -50,12 +58,28 @@ class CategoryServiceImplTest {
         expectedResult.add(category);
 
         // when
-        when(categoryRepository.findAllWithProducts()).thenReturn(expectedResult);
+        when(categoryRepository.findAll()).thenReturn(expectedResult);
         List<Category> actualResult = categoryService.getAllCategories();
 
         // then
         assertEquals(expectedResult, actualResult);
-        verify(categoryRepository, times(1)).findAllWithProducts();
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findAllWithProducts();
+    }
+
+    @Test
+    public void getCategorySummariesTest() {
+        // given
+        List<CategorySummary> expectedResult = List.of(new CategorySummary(1L, "Test Category", 3L));
+
+        // when
+        when(categoryRepository.findAllSummaries()).thenReturn(expectedResult);
+        List<CategorySummary> actualResult = categoryService.getCategorySummaries();
+
+        // then
+        assertEquals(expectedResult, actualResult);
+        verify(categoryRepository, times(1)).findAllSummaries();
+        verify(categoryRepository, never()).findAllWithProducts();
     }
 
     @Test
@@ -72,32 +96,123 @@ class CategoryServiceImplTest {
 
         // when
         when(categoryRepository.save(category)).thenReturn(expectedResult);
-        when(categoryRepository.findAllWithProducts()).thenReturn(List.of(expectedResult));
         Category actualResult = categoryService.saveCategory(categoryName);
 
         // then
         assertEquals(expectedResult, actualResult);
         verify(validator, times(1)).validate(category);
         verify(categoryRepository, times(1)).save(category);
-        verify(categoryRepository, times(1)).findAllWithProducts();
+        verify(categoryRepository, never()).findAllWithProducts();
+        verify(categoryTreeCache, times(1)).invalidate();
+        assertEquals("/1/", actualResult.getPath());
     }
 
     @Test
-    public void saveCategoryThrowsUnexpectedExceptionTest() {
+    public void saveCategoryWithParentTest() {
         // given
-        String categoryName = "Test Category";
-        Category category = Category.builder()
-                .name(categoryName)
-                .build();
+        Category parent = Category.builder().path("/1/").build();
+        parent.setId(1L);
+
+        Category expectedResult = Category.builder().name("Phones").parent(parent).build();
+        expectedResult.setId(2L);
 
         // when
-        when(categoryRepository.findAllWithProducts()).thenReturn(new ArrayList<>());
+        when(categoryRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(parent));
+        when(categoryRepository.save(any(Category.class))).thenReturn(expectedResult);
+        Category actualResult = categoryService.saveCategory("Phones", 1L);
 
         // then
-        assertThrows(IllegalArgumentException.class,
-                () -> categoryService.saveCategory(categoryName));
-        verify(validator, times(1)).validate(category);
+        assertSame(expectedResult, actualResult);
+        assertEquals("/1/2/", actualResult.getPath());
+        verify(categoryTreeCache, times(1)).invalidate();
+    }
+
+    @Test
+    public void saveCategoryWithMissingParentTest() {
+        // when
+        when(categoryRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.saveCategory("Phones", 1L));
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    public void moveCategoryTest() {
+        // given
+        Category category = Category.builder().name("Phones").path("/1/2/").build();
+        category.setId(2L);
+        Category newParent = Category.builder().name("Gadgets").path("/3/").build();
+        newParent.setId(3L);
+
+        // when
+        when(categoryRepository.findAllByIdForUpdate(Set.of(2L, 3L))).thenReturn(List.of(category, newParent));
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(category));
+        Category actualResult = categoryService.moveCategory(2L, 3L);
+
+        // then
+        assertSame(category, actualResult);
+        assertSame(newParent, category.getParent());
+        verify(categoryRepository, times(1)).findAllByPathPrefixForUpdate("/1/2/");
+        verify(categoryRepository, times(1)).replacePathPrefix("/1/2/", "/3/2/");
+        verify(categoryTreeCache, times(1)).invalidate();
+    }
+
+    @Test
+    public void moveCategoryLocksOldParentTest() {
+        // given
+        Category oldParent = Category.builder().name("Electronics").path("/1/").build();
+        oldParent.setId(1L);
+        Category category = Category.builder().name("Phones").parent(oldParent).path("/1/2/").build();
+        category.setId(2L);
+        Category newParent = Category.builder().name("Gadgets").path("/3/").build();
+        newParent.setId(3L);
+
+        // when
+        when(categoryRepository.findParentIdById(2L)).thenReturn(Optional.of(1L));
+        when(categoryRepository.findAllByIdForUpdate(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(oldParent, category, newParent));
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(category));
+        categoryService.moveCategory(2L, 3L);
+
+        // then
+        verify(categoryRepository, never()).findByIdForUpdate(anyLong());
+        verify(categoryRepository, times(1)).replacePathPrefix("/1/2/", "/3/2/");
+    }
+
+    @Test
+    public void moveCategoryIntoOwnSubtreeTest() {
+        // given
+        Category category = Category.builder().name("Phones").path("/1/2/").build();
+        category.setId(2L);
+        Category child = Category.builder().name("Smartphones").path("/1/2/4/").build();
+        child.setId(4L);
 
+        // when
+        when(categoryRepository.findAllByIdForUpdate(Set.of(2L, 4L))).thenReturn(List.of(category, child));
+
+        // then
+        assertThrows(ValidatorException.class, () -> categoryService.moveCategory(2L, 4L));
+        verify(categoryRepository, never()).replacePathPrefix(anyString(), anyString());
+        verify(categoryTreeCache, never()).invalidate();
+    }
+
+    @Test
+    public void backfillPathsTest() {
+        // given
+        Category root = Category.builder().name("Electronics").build();
+        root.setId(1L);
+        Category child = Category.builder().name("Phones").parent(root).build();
+        child.setId(2L);
+
+        // when
+        when(categoryRepository.findAllByPathIsNullOrderByIdAsc()).thenReturn(List.of(child, root));
+        categoryService.backfillPaths();
+
+        // then
+        assertEquals("/1/", root.getPath());
+        assertEquals("/1/2/", child.getPath());
+        verify(categoryTreeCache, times(1)).invalidate();
     }
 
     @Test
@@ -154,34 +269,14 @@ class CategoryServiceImplTest {
 
         // when
         when(categoryRepository.findById(eq(1L))).thenReturn(Optional.of(existingCategory));
-        when(categoryRepository.findAllWithProducts()).thenReturn(List.of(expectedResult));
-        when(categoryRepository.save(any(Category.class))).thenReturn(expectedResult);
         Category actualResult = categoryService.updateCategory(categoryId, expectedResult);
 
         // then
         assertEquals(expectedResult, actualResult);
+        assertSame(existingCategory, actualResult);
         verify(validator, times(1)).validate(expectedResult);
         verify(categoryRepository, times(1)).findById(categoryId);
-        verify(categoryRepository, times(1)).findAllWithProducts();
-    }
-
-    @Test
-    public void updateCategoryThrowsUnexpectedExceptionTest() {
-        // given
-        Long categoryId = 1L;
-
-        Category existingCategory = new Category();
-        existingCategory.setId(categoryId);
-        existingCategory.setName("Existing Category");
-
-        // when
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(existingCategory));
-        when(categoryRepository.findAllWithProducts()).thenReturn(new ArrayList<>());
-
-        // then
-        assertThrows(IllegalArgumentException.class,
-                () -> categoryService.updateCategory(categoryId, existingCategory));
-        verify(validator, times(1)).validate(existingCategory);
+        verify(categoryRepository, never()).findAllWithProducts();
     }
 
     @Test
@@ -253,6 +348,22 @@ class CategoryServiceImplTest {
         // then
         verify(categoryRepository, times(1)).findById(categoryId);
         verify(categoryRepository, times(1)).deleteById(categoryId);
+        verify(categoryTreeCache, times(1)).invalidate();
+    }
+
+    @Test
+    void deleteCategoryByIdWithSubcategoriesTest() {
+        // given
+        Category category = new Category();
+        category.setId(1L);
+
+        // when
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsByParentId(1L)).thenReturn(true);
+
+        // then
+        assertThrows(DeleteCategoryException.class, () -> categoryService.deleteCategoryById(1L));
+        verify(categoryRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -3,20 +3,25 @@ package com.qual.store.service.impl;
 import com.qual.store.converter.OrderItemConverter;
 import com.qual.store.dto.OrderItemDto;
 import com.qual.store.exceptions.OrderItemNotFoundException;
-import com.qual.store.exceptions.ProductNotFoundException;
+import com.qual.store.model.AppUser;
 import com.qual.store.model.Category;
 import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
 import com.qual.store.model.Product;
+import com.qual.store.model.enums.OrderStatus;
 import com.qual.store.repository.OrderItemRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
-import com.qual.store.utils.validators.Validator;
+import com.qual.store.service.StockReservationService;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
 import org.junit.After;
 import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.*;
 
@@ -37,7 +42,13 @@ public class OrderItemServiceImplTest {
     private OrderItemConverter orderItemConverter;
 
     @Mock
-    private Validator<OrderItem> validator;
+    private OrderPriceCalculator orderPriceCalculator;
+
+    @Mock
+    private ObjectProvider<BasketStore> basketStoreProvider;
+
+    @Mock
+    private StockReservationService stockReservationService;
 
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
@@ -68,52 +79,6 @@ public class OrderItemServiceImplTest {
         verify(orderItemRepository, times(1)).findAllWithProduct();
     }
 
-    @Test
-    public void addOrderItemTest() {
-        // given
-        int quantity = 1;
-        Long productId = 1L;
-
-        OrderItem orderItem = OrderItem.builder()
-                .quantity(quantity)
-                .build();
-
-        Product product = Product.builder().build();
-        product.setId(productId);
-
-        // when
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(orderItemRepository.save(orderItem)).thenReturn(orderItem);
-        OrderItem actualResult = orderItemService.addOrderItem(productId, quantity);
-
-        // then
-        assertEquals(orderItem, actualResult);
-        verify(validator, times(1)).validate(orderItem);
-        verify(orderItemRepository, times(1)).save(orderItem);
-    }
-
-    @Test
-    public void saveOrderItemThrowsProductNotFoundExceptionTest() {
-        // given
-        int quantity = 1;
-        Long productId = 1L;
-
-        OrderItem orderItem = OrderItem.builder()
-                .quantity(quantity)
-                .build();
-
-        // when
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
-
-        // then
-        assertThrows(ProductNotFoundException.class, () ->
-                orderItemService.addOrderItem(productId, quantity)
-        );
-        verify(validator, times(0)).validate(orderItem);
-        verify(orderItemRepository, times(0)).save(orderItem);
-        verify(orderItemRepository, times(0)).findAllWithProduct();
-    }
-
     @Test
     void getOrderItemByIdTest() {
         // given
@@ -167,25 +132,55 @@ public class OrderItemServiceImplTest {
         product.getOrderItems().add(orderItem);
         orderItem.setProduct(product);
 
-        Order order = Order.builder().build();
+        Order order = Order.builder().status(OrderStatus.CHECKOUT).build();
         order.setId(1L);
         order.setOrderItems(new HashSet<>());
         order.getOrderItems().add(orderItem);
         orderItem.setOrder(order);
 
         // when
+        when(orderItemRepository.findOrderIdById(orderItem.getId())).thenReturn(Optional.of(order.getId()));
         when(orderItemRepository.findById(orderItem.getId())).thenReturn(Optional.of(orderItem));
         when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
         when(productRepository.save(product)).thenReturn(product);
         orderItemService.deleteOrderItemById(orderItem.getId());
 
         // then
         verify(orderItemRepository, times(1)).findById(orderItem.getId());
         verify(productRepository, times(1)).findById(product.getId());
-        verify(orderRepository, times(1)).findById(order.getId());
+        verify(orderRepository, times(1)).findByIdForUpdate(order.getId());
+        verify(orderPriceCalculator, times(1)).removeLine(order, orderItem);
         verify(productRepository, times(1)).save(any(Product.class));
         verify(orderItemRepository, times(1)).deleteById(orderItem.getId());
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void deleteOrderItemOfPlacedOrderReleasesStockTest() {
+        // given
+        Product product = Product.builder().orderItems(new HashSet<>()).build();
+        product.setId(2L);
+        Order order = Order.builder().status(OrderStatus.PLACED).build();
+        order.setId(3L);
+        OrderItem orderItem = OrderItem.builder()
+                .quantity(4)
+                .product(product)
+                .order(order)
+                .build();
+        orderItem.setId(1L);
+        order.getOrderItems().add(orderItem);
+
+        // when
+        when(orderItemRepository.findOrderIdById(orderItem.getId())).thenReturn(Optional.of(order.getId()));
+        when(orderItemRepository.findById(orderItem.getId())).thenReturn(Optional.of(orderItem));
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
+        orderItemService.deleteOrderItemById(orderItem.getId());
+
+        // then
+        verify(stockReservationService, times(1)).release(2L, 4L);
+        verify(orderItemRepository, times(1)).deleteById(orderItem.getId());
     }
 
     @Test
@@ -260,6 +255,133 @@ public class OrderItemServiceImplTest {
         verify(orderItemRepository, times(1)).save(orderItem);
     }
 
+    @Test
+    void modifyQuantityUpdatesOrderTotalsTest() {
+        // given
+        Long orderItemId = 1L;
+        OrderItem orderItem = OrderItem.builder()
+                .quantity(2)
+                .build();
+        orderItem.setId(orderItemId);
+        Order order = Order.builder().status(OrderStatus.CHECKOUT).build();
+        order.setId(3L);
+        order.setOrderItems(new HashSet<>());
+        order.getOrderItems().add(orderItem);
+        orderItem.setOrder(order);
+
+        // when
+        when(orderItemRepository.findOrderIdById(orderItemId)).thenReturn(Optional.of(order.getId()));
+        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.of(orderItem));
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
+        orderItemService.modifyQuantity(orderItemId, 5);
+
+        // then
+        verify(orderRepository, times(1)).findByIdForUpdate(order.getId());
+        verify(orderPriceCalculator, times(1)).changeQuantity(order, orderItem, 2, 5);
+        verify(orderItemRepository, times(1)).save(orderItem);
+        verifyNoInteractions(stockReservationService);
+        assertEquals(5, orderItem.getQuantity());
+    }
+
+    @Test
+    void modifyQuantityOfPlacedOrderReservesDifferenceTest() {
+        // given
+        Product product = Product.builder().build();
+        product.setId(2L);
+        Order order = Order.builder().status(OrderStatus.SHIPPED).build();
+        order.setId(3L);
+        OrderItem orderItem = OrderItem.builder()
+                .quantity(2)
+                .product(product)
+                .order(order)
+                .build();
+        orderItem.setId(1L);
+
+        // when
+        when(orderItemRepository.findOrderIdById(1L)).thenReturn(Optional.of(order.getId()));
+        when(orderItemRepository.findById(1L)).thenReturn(Optional.of(orderItem));
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
+        orderItemService.modifyQuantity(1L, 5);
+        orderItemService.modifyQuantity(1L, 1);
+
+        // then
+        verify(stockReservationService, times(1)).reserve(2L, 3L);
+        verify(stockReservationService, times(1)).release(2L, 4L);
+        assertEquals(1, orderItem.getQuantity());
+    }
+
+    @Test
+    void modifyQuantityReadsTheLineAfterTheOrderLockTest() {
+        // given
+        Product product = Product.builder().build();
+        product.setId(2L);
+        Order order = Order.builder().status(OrderStatus.PLACED).build();
+        order.setId(3L);
+        // the line as committed in the database, read fresh by every findById
+        int[] committedQuantity = {2};
+
+        // when
+        when(orderItemRepository.findOrderIdById(1L)).thenReturn(Optional.of(order.getId()));
+        when(orderItemRepository.findById(1L)).thenAnswer(invocation -> {
+            OrderItem orderItem = OrderItem.builder()
+                    .quantity(committedQuantity[0])
+                    .product(product)
+                    .order(order)
+                    .build();
+            orderItem.setId(1L);
+            return Optional.of(orderItem);
+        });
+        // a concurrent change to 5 commits while this one waits for the order lock
+        when(orderRepository.findByIdForUpdate(order.getId())).thenAnswer(invocation -> {
+            committedQuantity[0] = 5;
+            return Optional.of(order);
+        });
+        orderItemService.modifyQuantity(1L, 3);
+
+        // then
+        InOrder inOrder = inOrder(orderRepository, orderItemRepository);
+        inOrder.verify(orderRepository).findByIdForUpdate(order.getId());
+        inOrder.verify(orderItemRepository).findById(1L);
+        verify(orderPriceCalculator, times(1)).changeQuantity(eq(order), any(OrderItem.class), eq(5), eq(3));
+        verify(stockReservationService, times(1)).release(2L, 2L);
+        verify(stockReservationService, never()).reserve(anyLong(), anyLong());
+    }
+
+    @Test
+    void modifyQuantityInBasketStoreTest() {
+        // given
+        Long orderItemId = 1L;
+        AppUser appUser = new AppUser();
+        appUser.setId(7L);
+        Product product = Product.builder().build();
+        product.setId(2L);
+        Order order = Order.builder()
+                .status(OrderStatus.ACTIVE)
+                .user(appUser)
+                .build();
+        order.setId(3L);
+        OrderItem orderItem = OrderItem.builder()
+                .quantity(1)
+                .product(product)
+                .order(order)
+                .build();
+        orderItem.setId(orderItemId);
+        BasketStore basketStore = mock(BasketStore.class);
+
+        // when
+        when(basketStoreProvider.getIfAvailable()).thenReturn(basketStore);
+        when(orderItemRepository.findOrderIdById(orderItemId)).thenReturn(Optional.of(order.getId()));
+        when(orderRepository.findActiveBasketOwnerId(order.getId())).thenReturn(Optional.of(7L));
+        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.of(orderItem));
+        orderItemService.modifyQuantity(orderItemId, 3);
+
+        // then
+        verify(basketStore, times(1)).setQuantity(7L, 2L, 3);
+        verify(orderItemRepository, times(0)).save(any(OrderItem.class));
+        verify(orderRepository, times(0)).findByIdForUpdate(anyLong());
+        assertEquals(1, orderItem.getQuantity());
+    }
+
     @Test
     void modifyQuantityThrowsOrderItemNotFoundExceptionTest() {
         // given
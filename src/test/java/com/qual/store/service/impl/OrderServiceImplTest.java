@@ -1,33 +1,48 @@
 package com.qual.store.service.impl;
 
 
+import com.qual.store.converter.ArchivedOrderConverter;
 import com.qual.store.converter.OrderConverter;
 import com.qual.store.dto.OrderDto;
 import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.OrderSearchResponse;
 import com.qual.store.dto.paginated.PaginatedOrderResponse;
 import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.dto.request.OrderSearchRequest;
+import com.qual.store.events.OrderStatusChangedEvent;
+import com.qual.store.exceptions.InsufficientStockException;
 import com.qual.store.exceptions.InvalidOrderStatusException;
-import com.qual.store.exceptions.OrderItemNotFoundException;
 import com.qual.store.exceptions.OrderNotFoundException;
+import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.exceptions.UpdateOrderStatusException;
 import com.qual.store.model.AppUser;
+import com.qual.store.model.ArchivedOrder;
 import com.qual.store.model.Order;
 import com.qual.store.model.OrderItem;
 import com.qual.store.model.Product;
 import com.qual.store.model.enums.OrderStatus;
 import com.qual.store.model.enums.RoleName;
 import com.qual.store.repository.AppUserRepository;
+import com.qual.store.repository.ArchivedOrderRepository;
 import com.qual.store.repository.OrderItemRepository;
 import com.qual.store.repository.OrderRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.service.OrderItemService;
+import com.qual.store.service.StockReservationService;
+import com.qual.store.utils.basket.BasketLine;
+import com.qual.store.utils.basket.BasketStore;
+import com.qual.store.utils.outbox.Outbox;
+import com.qual.store.utils.pricing.OrderPriceCalculator;
+import com.qual.store.utils.pricing.OrderTotalsRepairJob;
 import com.qual.store.utils.validators.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -58,9 +73,30 @@ public class OrderServiceImplTest {
     @Mock
     private OrderItemService orderItemService;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OrderPriceCalculator orderPriceCalculator;
+
+    @Mock
+    private ObjectProvider<BasketStore> basketStoreProvider;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private OrderTotalsRepairJob orderTotalsRepairJob;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ArchivedOrderConverter archivedOrderConverter;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -109,53 +145,169 @@ public class OrderServiceImplTest {
     }
 
     @Test
-    public void addToOrderTest() {
+    public void addToBasketCreatesBasketAndLineTest() {
         // given
-        OrderItem orderItem = OrderItem.builder().build();
-        orderItem.setId(1L);
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+        Product product = new Product();
+        product.setId(2L);
+        product.setPrice(10.0);
+        Order basket = Order.builder().status(OrderStatus.ACTIVE).build();
+        basket.setId(3L);
 
-        Order order = Order.builder()
-                .status(OrderStatus.ACTIVE)
-                .deliveryPrice(200.0)
-                .orderItems(new HashSet<>())
-                .build();
-        order.addOrderItem(orderItem);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
 
-        Authentication authentication = new UsernamePasswordAuthenticationToken(new AppUser(), new Object());
+        // when
+        when(appUserRepository.findByUsername(anyString())).thenReturn(Optional.of(appUser));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        when(orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(1L, OrderStatus.ACTIVE)).thenReturn(Optional.empty());
+        when(orderRepository.save(any(Order.class))).thenReturn(basket);
+        when(orderItemRepository.findAllByOrderIdAndProductIdOrderByIdAsc(3L, 2L)).thenReturn(List.of());
+        when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderItem actualResult = orderService.addToBasket(2L, 2);
+
+        // then
+        verify(appUserRepository, times(1)).findByIdForUpdate(1L);
+        assertEquals(2, actualResult.getQuantity());
+        assertSame(basket, actualResult.getOrder());
+        assertSame(product, actualResult.getProduct());
+        verify(orderPriceCalculator, times(1)).addLine(basket, actualResult);
+        verify(appUserRepository, never()).findUserByUsername(anyString());
+        verify(orderRepository, never()).findAllWithOrderItemsAndProducts();
+    }
+
+    @Test
+    public void addToBasketMergesExistingLineTest() {
+        // given
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+        Product product = new Product();
+        product.setId(2L);
+        Order basket = Order.builder().status(OrderStatus.ACTIVE).build();
+        basket.setId(3L);
+        OrderItem existingLine = OrderItem.builder().quantity(1).product(product).order(basket).build();
+        existingLine.setId(4L);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
         SecurityContext securityContext = mock(SecurityContext.class);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        //when
-        when(orderItemRepository.findById(orderItem.getId())).thenReturn(Optional.of(orderItem));
-        when(appUserRepository.findUserByUsername(anyString())).thenReturn(new AppUser());
-        Order savedOrder = orderService.addToOrder(orderItem.getId());
+        // when
+        when(appUserRepository.findByUsername(anyString())).thenReturn(Optional.of(appUser));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        when(orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(1L, OrderStatus.ACTIVE)).thenReturn(Optional.of(basket));
+        when(orderItemRepository.findAllByOrderIdAndProductIdOrderByIdAsc(3L, 2L)).thenReturn(List.of(existingLine));
+        OrderItem actualResult = orderService.addToBasket(2L, 3);
 
-        //then
-        assertEquals(order, savedOrder);
-        verify(validator, times(1)).validate(order);
-        verify(orderRepository, times(1)).save(order);
+        // then
+        assertSame(existingLine, actualResult);
+        assertEquals(4, actualResult.getQuantity());
+        verify(orderItemRepository, never()).save(any());
+        verify(orderRepository, never()).save(any());
+        verify(orderPriceCalculator, times(1)).changeQuantity(basket, existingLine, 1, 4);
+        verify(orderPriceCalculator, never()).addLine(any(), any());
     }
 
     @Test
-    public void addToOrderThrowsOrderItemNotFoundExceptionTest() {
+    public void addToBasketMergesDuplicateLinesTest() {
         // given
-        Long orderItemId = 1L;
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+        Product product = new Product();
+        product.setId(2L);
+        Order basket = Order.builder().status(OrderStatus.ACTIVE).build();
+        basket.setId(3L);
+        OrderItem firstLine = OrderItem.builder().quantity(1).product(product).order(basket).build();
+        firstLine.setId(4L);
+        OrderItem duplicateLine = OrderItem.builder().quantity(2).product(product).order(basket).build();
+        duplicateLine.setId(5L);
+        basket.addOrderItem(firstLine);
+        basket.addOrderItem(duplicateLine);
 
-        Authentication authentication = new UsernamePasswordAuthenticationToken(new AppUser(), new Object());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
         SecurityContext securityContext = mock(SecurityContext.class);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderItemRepository.findById(orderItemId)).thenReturn(Optional.empty());
+        when(appUserRepository.findByUsername(anyString())).thenReturn(Optional.of(appUser));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        when(orderRepository.findFirstByUserIdAndStatusOrderByIdAsc(1L, OrderStatus.ACTIVE)).thenReturn(Optional.of(basket));
+        when(orderItemRepository.findAllByOrderIdAndProductIdOrderByIdAsc(3L, 2L))
+                .thenReturn(List.of(firstLine, duplicateLine));
+        OrderItem actualResult = orderService.addToBasket(2L, 3);
 
         // then
-        assertThrows(OrderItemNotFoundException.class,
-                () -> orderService.addToOrder(orderItemId)
-        );
-        verify(validator, times(1)).validate(any());
-        verify(orderRepository, times(0)).save(any());
+        assertSame(firstLine, actualResult);
+        assertEquals(6, actualResult.getQuantity());
+        assertEquals(Set.of(firstLine), basket.getOrderItems());
+        verify(orderPriceCalculator, times(1)).changeQuantity(basket, firstLine, 1, 3);
+        verify(orderPriceCalculator, times(1)).removeLine(basket, duplicateLine);
+        verify(orderPriceCalculator, times(1)).changeQuantity(basket, firstLine, 3, 6);
+        verify(orderItemRepository, times(1)).delete(duplicateLine);
+        verify(orderItemRepository, never()).save(any());
+    }
+
+    @Test
+    public void addToBasketInBasketStoreTest() {
+        // given
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+        Product product = new Product();
+        product.setId(2L);
+        BasketStore basketStore = mock(BasketStore.class);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(basketStoreProvider.getIfAvailable()).thenReturn(basketStore);
+        when(appUserRepository.findByUsername(anyString())).thenReturn(Optional.of(appUser));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        when(basketStore.add(1L, 2L, 3)).thenReturn(new BasketLine(2L, 5, 3L, 4L));
+        OrderItem actualResult = orderService.addToBasket(2L, 3);
+
+        // then
+        assertEquals(4L, actualResult.getId());
+        assertEquals(5, actualResult.getQuantity());
+        assertEquals(3L, actualResult.getOrder().getId());
+        assertSame(product, actualResult.getProduct());
+        verify(basketStore, times(1)).add(1L, 2L, 3);
+        verify(orderRepository, never()).findFirstByUserIdAndStatusOrderByIdAsc(anyLong(), any());
+        verify(orderItemRepository, never()).save(any());
+        verify(orderPriceCalculator, never()).addLine(any(), any());
+    }
+
+    @Test
+    public void addToBasketThrowsProductNotFoundExceptionTest() {
+        // given
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(appUserRepository.findByUsername(anyString())).thenReturn(Optional.of(appUser));
+        when(productRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(ProductNotFoundException.class, () -> orderService.addToBasket(2L, 1));
+        verify(orderPriceCalculator, never()).addLine(any(), any());
+        verify(orderItemRepository, never()).save(any());
     }
 
     @Test
@@ -269,8 +421,7 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(List.of(order));
-        when(orderRepository.findById(orderId)).thenReturn(optionalOrder);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(optionalOrder);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
         Order actualResult = orderService.updateOrderStatus(orderId, "delivered");
 
@@ -278,7 +429,7 @@ public class OrderServiceImplTest {
         assertNotNull(actualResult);
         assertEquals(orderId, actualResult.getId());
         assertEquals(OrderStatus.DELIVERED, actualResult.getStatus());
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
     }
 
@@ -305,8 +456,7 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(List.of(order));
-        when(orderRepository.findById(orderId)).thenReturn(optionalOrder);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(optionalOrder);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
         Order actualResult = orderService.updateOrderStatus(orderId, "cHeckOut");
 
@@ -314,7 +464,7 @@ public class OrderServiceImplTest {
         assertNotNull(actualResult);
         assertEquals(orderId, actualResult.getId());
         assertEquals(OrderStatus.CHECKOUT, actualResult.getStatus());
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
     }
 
@@ -324,13 +474,13 @@ public class OrderServiceImplTest {
         Long orderId = 1L;
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(new ArrayList<>());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.empty());
 
         // then
         assertThrows(OrderNotFoundException.class,
                 () -> orderService.updateOrderStatus(orderId, "DELIVERED")
         );
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(0)).findUserByUsername(anyString());
     }
 
@@ -357,15 +507,14 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(List.of(order));
-        when(orderRepository.findById(orderId)).thenReturn(optionalOrder);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(optionalOrder);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
 
         // then
         assertThrows(InvalidOrderStatusException.class,
                 () -> orderService.updateOrderStatus(orderId, "FAKE_STATUS")
         );
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
     }
 
@@ -392,15 +541,14 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(List.of(order));
-        when(orderRepository.findById(orderId)).thenReturn(optionalOrder);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(optionalOrder);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
 
         // then
         assertThrows(InvalidOrderStatusException.class,
                 () -> orderService.updateOrderStatus(orderId, "DELIVERED")
         );
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
     }
 
@@ -427,18 +575,122 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(List.of(order));
-        when(orderRepository.findById(orderId)).thenReturn(optionalOrder);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(optionalOrder);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
 
         // then
         assertThrows(UpdateOrderStatusException.class,
                 () -> orderService.updateOrderStatus(orderId, "CHECKOUT")
         );
-        verify(orderRepository, times(1)).findAllWithOrderItems();
+        verify(orderRepository, times(1)).findByIdForUpdate(orderId);
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
     }
 
+    @Test
+    void updateOrderStatusAsUserPlacedReservesStockTest() {
+        // given
+        Long orderId = 1L;
+        Order order = Order.builder()
+                .status(OrderStatus.CHECKOUT)
+                .deliveryPrice(200.0)
+                .orderItems(new HashSet<>())
+                .build();
+        order.setId(orderId);
+        Product product = new Product();
+        product.setId(2L);
+        order.addOrderItem(OrderItem.builder().quantity(3).product(product).build());
+
+        AppUser appUser = new AppUser();
+        appUser.setId(5L);
+        appUser.setUsername("username");
+        appUser.setRole(RoleName.USER);
+        order.setUser(appUser);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+
+        // when
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
+        Order actualResult = orderService.updateOrderStatus(orderId, "placed");
+
+        // then
+        assertEquals(OrderStatus.PLACED, actualResult.getStatus());
+        verify(stockReservationService, times(1)).reserve(order.getOrderItems());
+        verify(stockReservationService, never()).release(any());
+        verify(outbox, times(1)).append(eq(Outbox.ORDER), eq(orderId), event.capture());
+        assertEquals(5L, event.getValue().getUserId());
+        assertEquals(OrderStatus.CHECKOUT, event.getValue().getPreviousStatus());
+        assertEquals(OrderStatus.PLACED, event.getValue().getStatus());
+        assertEquals(Map.of(2L, 3), event.getValue().getQuantities());
+    }
+
+    @Test
+    void updateOrderStatusAsUserPlacedWithoutStockTest() {
+        // given
+        Long orderId = 1L;
+        Order order = Order.builder()
+                .status(OrderStatus.CHECKOUT)
+                .deliveryPrice(200.0)
+                .orderItems(new HashSet<>())
+                .build();
+        order.setId(orderId);
+
+        AppUser appUser = new AppUser();
+        appUser.setUsername("username");
+        appUser.setRole(RoleName.USER);
+        order.setUser(appUser);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
+        doThrow(new InsufficientStockException("Not enough units in stock for product with id 2"))
+                .when(stockReservationService).reserve(order.getOrderItems());
+
+        // then
+        assertThrows(InsufficientStockException.class, () -> orderService.updateOrderStatus(orderId, "PLACED"));
+        assertEquals(OrderStatus.CHECKOUT, order.getStatus());
+    }
+
+    @Test
+    void updateOrderStatusAsAdminCancelledRestocksTest() {
+        // given
+        Long orderId = 1L;
+        Order order = Order.builder()
+                .status(OrderStatus.SHIPPED)
+                .deliveryPrice(200.0)
+                .orderItems(new HashSet<>())
+                .build();
+        order.setId(orderId);
+
+        AppUser appUser = new AppUser();
+        appUser.setUsername("admin");
+        appUser.setRole(RoleName.ADMIN);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
+        Order actualResult = orderService.updateOrderStatus(orderId, "cancelled");
+
+        // then
+        assertEquals(OrderStatus.CANCELLED, actualResult.getStatus());
+        verify(stockReservationService, times(1)).release(order.getOrderItems());
+        verify(stockReservationService, never()).reserve(any());
+    }
+
     @Test
     void getAllOrdersByUserTest() {
         // given
@@ -455,12 +707,6 @@ public class OrderServiceImplTest {
                 .build();
         order.setUser(appUser);
 
-        OrderDto orderDto = new OrderDto();
-        orderDto.setStatus("ACTIVE");
-        orderDto.setDeliveryPrice(200.0);
-        orderDto.setOrderItems(new ArrayList<>());
-        orderDto.setUserId(userId);
-
         List<Order> orders = List.of(order);
 
 
@@ -470,10 +716,8 @@ public class OrderServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         // when
-        when(orderService.getAllOrders()).thenReturn(orders);
         when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
-        when(orderConverter.convertModelToDto(any(Order.class))).thenReturn(orderDto);
-        when(orderConverter.convertDtoToModel(any(OrderDto.class))).thenReturn(order);
+        when(orderRepository.findAllByAppUserId(userId)).thenReturn(orders);
         List<Order> actualResult = orderService.getAllOrdersByUser();
 
         // then
@@ -481,8 +725,86 @@ public class OrderServiceImplTest {
         assertEquals(1, actualResult.size());
         assertEquals(order, actualResult.get(0));
         verify(appUserRepository, times(1)).findUserByUsername(anyString());
-        verify(orderConverter, times(1)).convertModelToDto(any(Order.class));
-        verify(orderConverter, times(1)).convertDtoToModel(any(OrderDto.class));
+        verify(orderRepository, times(1)).findAllByAppUserId(userId);
+        verify(orderRepository, never()).findAllWithOrderItemsAndProducts();
+    }
+
+    @Test
+    void getAllOrdersByUserWithoutArchivedTest() {
+        // given
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+
+        Order order = Order.builder()
+                .status(OrderStatus.PLACED)
+                .build();
+        order.setId(2L);
+
+        OrderDto orderDto = new OrderDto();
+        orderDto.setId(2L);
+        orderDto.setStatus("PLACED");
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
+        when(orderRepository.findAllByAppUserId(1L)).thenReturn(List.of(order));
+        when(orderConverter.convertModelToDto(order)).thenReturn(orderDto);
+        List<OrderDto> actualResult = orderService.getAllOrdersByUser(false);
+
+        // then
+        assertEquals(List.of(orderDto), actualResult);
+        verify(archivedOrderRepository, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void getAllOrdersByUserIncludingArchivedTest() {
+        // given
+        AppUser appUser = new AppUser();
+        appUser.setId(1L);
+        appUser.setUsername("username");
+
+        ArchivedOrder archivedOrder = ArchivedOrder.builder()
+                .status(OrderStatus.DELIVERED)
+                .userId(1L)
+                .build();
+        archivedOrder.setId(3L);
+
+        Order order = Order.builder()
+                .status(OrderStatus.PLACED)
+                .build();
+        order.setId(4L);
+
+        OrderDto orderDto = new OrderDto();
+        orderDto.setId(3L);
+        orderDto.setStatus("DELIVERED");
+
+        OrderDto placedOrderDto = new OrderDto();
+        placedOrderDto.setId(4L);
+        placedOrderDto.setStatus("PLACED");
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(appUser, new Object());
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // when
+        when(appUserRepository.findUserByUsername(anyString())).thenReturn(appUser);
+        when(orderRepository.findAllByAppUserId(1L)).thenReturn(List.of(order));
+        when(orderConverter.convertModelToDto(order)).thenReturn(placedOrderDto);
+        when(archivedOrderRepository.findAllByUserId(1L)).thenReturn(List.of(archivedOrder));
+        when(archivedOrderConverter.convertModelsToDtos(List.of(archivedOrder))).thenReturn(List.of(orderDto));
+        List<OrderDto> actualResult = orderService.getAllOrdersByUser(true);
+
+        // then
+        assertEquals(List.of(placedOrderDto, orderDto), actualResult);
+        verify(orderRepository, times(1)).findAllByAppUserId(1L);
+        verify(archivedOrderRepository, times(1)).findAllByUserId(1L);
+        verify(orderRepository, never()).findAllWithOrderItemsAndProducts();
     }
 
     @Test
@@ -630,66 +952,102 @@ public class OrderServiceImplTest {
     }
 
     @Test
-    void searchOrdersByUsernameTest() {
+    void searchOrdersReturnsPageNewestFirstWithCursorTest() {
         // given
-        String username = "username";
-        Long userId = 1L;
         AppUser appUser = new AppUser();
-        appUser.setId(userId);
-        appUser.setUsername(username);
-        appUser.setRole(RoleName.USER);
+        appUser.setId(1L);
+        appUser.setUsername("username");
 
         Order order1 = Order.builder()
-                .status(OrderStatus.ACTIVE)
-                .deliveryPrice(200.0)
+                .status(OrderStatus.PLACED)
                 .orderItems(new HashSet<>())
+                .user(appUser)
                 .build();
-        order1.setId(1L);
-        order1.setUser(appUser);
+        order1.setId(7L);
 
         Order order2 = Order.builder()
                 .status(OrderStatus.PLACED)
-                .deliveryPrice(300.0)
                 .orderItems(new HashSet<>())
+                .user(appUser)
                 .build();
-        order2.setId(2L);
-        order2.setUser(appUser);
-
-        List<Order> orders = List.of(order1, order2);
+        order2.setId(5L);
 
         OrderDto orderDto1 = new OrderDto();
-        orderDto1.setId(1L);
-        orderDto1.setStatus("ACTIVE");
-        orderDto1.setDeliveryPrice(200.0);
-        orderDto1.setUserId(userId);
-
+        orderDto1.setId(7L);
         OrderDto orderDto2 = new OrderDto();
-        orderDto2.setId(2L);
-        orderDto2.setStatus("PLACED");
-        orderDto2.setDeliveryPrice(300.0);
-        orderDto2.setUserId(userId);
+        orderDto2.setId(5L);
+
+        OrderSearchRequest request = OrderSearchRequest.builder()
+                .user("user")
+                .status("placed")
+                .minTotalCents(1000L)
+                .cursor(9L)
+                .size(2)
+                .build();
 
         // when
-        when(orderRepository.findAllWithOrderItems()).thenReturn(orders);
+        when(orderRepository.findIdsNewestFirst(any(), eq(3))).thenReturn(new ArrayList<>(List.of(7L, 5L, 4L)));
+        when(orderRepository.findAllWithUserAndOrderItemsByIdIn(List.of(7L, 5L))).thenReturn(List.of(order2, order1));
         when(orderConverter.convertModelToDto(order1)).thenReturn(orderDto1);
         when(orderConverter.convertModelToDto(order2)).thenReturn(orderDto2);
-        List<OrderDto> actualResult = orderService.searchOrdersByUsername(username);
+        OrderSearchResponse actualResult = orderService.searchOrders(request);
 
         // then
-        assertNotNull(actualResult);
-        assertEquals(2, actualResult.size());
-        assertEquals(orderDto1.getId(), actualResult.get(0).getId());
-        assertEquals(orderDto1.getStatus(), actualResult.get(0).getStatus());
-        assertEquals(orderDto1.getDeliveryPrice(), actualResult.get(0).getDeliveryPrice());
-        assertEquals(orderDto1.getUserId(), actualResult.get(0).getUserId());
-        assertEquals(orderDto2.getId(), actualResult.get(1).getId());
-        assertEquals(orderDto2.getStatus(), actualResult.get(1).getStatus());
-        assertEquals(orderDto2.getDeliveryPrice(), actualResult.get(1).getDeliveryPrice());
-        assertEquals(orderDto2.getUserId(), actualResult.get(1).getUserId());
+        assertEquals(List.of(orderDto1, orderDto2), actualResult.getOrders());
+        assertEquals(5L, actualResult.getNextCursor());
+        verify(orderRepository, times(1)).findIdsNewestFirst(any(), eq(3));
+        verify(orderRepository, never()).findAllWithOrderItems();
+    }
 
-        verify(orderRepository, times(1)).findAllWithOrderItems();
-        verify(orderConverter, times(1)).convertModelToDto(order1);
-        verify(orderConverter, times(1)).convertModelToDto(order2);
+    @Test
+    void searchOrdersLastPageHasNoCursorTest() {
+        // given
+        OrderSearchRequest request = new OrderSearchRequest();
+
+        // when
+        when(orderRepository.findIdsNewestFirst(any(), eq(21))).thenReturn(new ArrayList<>());
+        OrderSearchResponse actualResult = orderService.searchOrders(request);
+
+        // then
+        assertTrue(actualResult.getOrders().isEmpty());
+        assertNull(actualResult.getNextCursor());
+        verify(orderRepository, never()).findAllWithUserAndOrderItemsByIdIn(any());
+    }
+
+    @Test
+    void searchOrdersInvalidStatusTest() {
+        // given
+        OrderSearchRequest request = OrderSearchRequest.builder()
+                .status("LOST")
+                .build();
+
+        // when
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.searchOrders(request));
+
+        // then
+        verify(orderRepository, never()).findIdsNewestFirst(any(), anyInt());
+    }
+
+    @Test
+    void recomputeTotalsTest() {
+        // when
+        when(orderTotalsRepairJob.tryStart()).thenReturn(true);
+        boolean actualResult = orderService.recomputeTotals();
+
+        // then
+        assertTrue(actualResult);
+        verify(orderTotalsRepairJob, times(1)).run();
+    }
+
+    @Test
+    void recomputeTotalsWhileRunningTest() {
+        // when
+        when(orderTotalsRepairJob.tryStart()).thenReturn(false);
+        boolean actualResult = orderService.recomputeTotals();
+
+        // then
+        assertFalse(actualResult);
+        verify(orderTotalsRepairJob, never()).run();
     }
 
     @AfterEach
@@ -3,11 +3,16 @@ package com.qual.store.service.impl;
 import com.qual.store.converter.ProductConverter;
 import com.qual.store.dto.ProductDto;
 import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.dto.projection.CategoryTreeRow;
 import com.qual.store.dto.request.ProductRequestDto;
+import com.qual.store.exceptions.CategoryNotFoundException;
 import com.qual.store.exceptions.DeleteProductException;
 import com.qual.store.exceptions.ProductNotFoundException;
 import com.qual.store.model.*;
 import com.qual.store.repository.*;
+import com.qual.store.utils.categories.CategoryTree;
+import com.qual.store.utils.categories.CategoryTreeCache;
+import com.qual.store.utils.inventory.HotStockInventory;
 import com.qual.store.utils.validators.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -42,6 +48,11 @@ class ProductServiceImplTest {
     private ImageRepository imageRepository;
     @Mock
     private ReviewRepository reviewRepository;
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+    @Mock
+    private ObjectProvider<HotStockInventory> hotStockInventory;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -251,6 +262,43 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).findAllWithCategoryAndReviewsAndImages();
     }
 
+    @Test
+    void updateProductRoutesStockOfHotProductThroughInventoryTest() {
+        // given
+        Long productId = 1L;
+        ProductRequestDto productRequestDto = ProductRequestDto.builder()
+                .name("Updated Product")
+                .description("Updated Description")
+                .price(20.0)
+                .unitsInStock(10L)
+                .discountPercentage(5.0)
+                .build();
+        Product product = Product.builder()
+                .name(productRequestDto.getName())
+                .description(productRequestDto.getDescription())
+                .price(productRequestDto.getPrice())
+                .unitsInStock(productRequestDto.getUnitsInStock())
+                .discountPercentage(productRequestDto.getDiscountPercentage())
+                .build();
+        Product existingProduct = Product.builder().name("Product").unitsInStock(4L).build();
+        existingProduct.setId(productId);
+        HotStockInventory hotStock = mock(HotStockInventory.class);
+
+        // when
+        when(productConverter.convertRequestToModel(productRequestDto)).thenReturn(product);
+        when(productRepository.findAllWithCategoryAndReviewsAndImages()).thenReturn(List.of(existingProduct));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(hotStockInventory.getIfAvailable()).thenReturn(hotStock);
+        when(hotStock.isHot(productId)).thenReturn(true);
+        Product updatedProduct = productService.updateProduct(productId, productRequestDto);
+
+        // then
+        assertEquals(productRequestDto.getName(), updatedProduct.getName());
+        // the row is left to the journal flush
+        assertEquals(4L, updatedProduct.getUnitsInStock());
+        verify(hotStock, times(1)).setAvailable(productId, 10L);
+    }
+
     @Test
     void updateProductThrowsProductNotFoundExceptionTest() {
         // given
@@ -429,6 +477,78 @@ class ProductServiceImplTest {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    public void getProductsByCategoryTest() {
+        // given
+        Long categoryId = 1L;
+        Product first = new Product();
+        first.setId(2L);
+        Product second = new Product();
+        second.setId(3L);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
+        ProductDto firstDto = new ProductDto();
+        firstDto.setId(2L);
+        ProductDto secondDto = new ProductDto();
+        secondDto.setId(3L);
+
+        // when
+        when(categoryRepository.existsById(categoryId)).thenReturn(true);
+        when(productRepository.findIdsByCategoryId(categoryId, pageable))
+                .thenReturn(new PageImpl<>(List.of(3L, 2L), pageable, 5));
+        when(productRepository.findAllWithCategoryAndReviewsAndImagesByIdIn(List.of(3L, 2L)))
+                .thenReturn(List.of(first, second));
+        when(productConverter.convertModelToDto(first)).thenReturn(firstDto);
+        when(productConverter.convertModelToDto(second)).thenReturn(secondDto);
+        PaginatedProductResponse actualResponse = productService.getProductsByCategory(categoryId, 0, 2, "name");
+
+        // then
+        assertEquals(List.of(secondDto, firstDto), actualResponse.getProducts());
+        assertEquals(5L, actualResponse.getNumberOfItems());
+        assertEquals(3, actualResponse.getNumberOfPages());
+        verify(productRepository, never()).findAllWithCategoryAndReviewsAndImages();
+    }
+
+    @Test
+    public void getProductsByCategoryNotFoundTest() {
+        when(categoryRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(CategoryNotFoundException.class, () -> productService.getProductsByCategory(1L, 0, 10, "id"));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void getProductsInCategorySubtreeTest() {
+        // given
+        Product product = new Product();
+        product.setId(4L);
+        ProductDto productDto = new ProductDto();
+        productDto.setId(4L);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+        CategoryTree tree = CategoryTree.of(List.of(
+                new CategoryTreeRow(1L, "Electronics", null, "/1/"),
+                new CategoryTreeRow(2L, "Phones", 1L, "/1/2/")
+        ));
+
+        // when
+        when(categoryTreeCache.get()).thenReturn(tree);
+        when(productRepository.findIdsByCategoryPathLike("/1/%", pageable))
+                .thenReturn(new PageImpl<>(List.of(4L), pageable, 1));
+        when(productRepository.findAllWithCategoryAndReviewsAndImagesByIdIn(List.of(4L))).thenReturn(List.of(product));
+        when(productConverter.convertModelToDto(product)).thenReturn(productDto);
+        PaginatedProductResponse actualResponse = productService.getProductsInCategorySubtree(1L, 0, 10, "id");
+
+        // then
+        assertEquals(List.of(productDto), actualResponse.getProducts());
+        assertEquals(1L, actualResponse.getNumberOfItems());
+    }
+
+    @Test
+    public void findProductsInCategorySubtreeNotFoundTest() {
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.of(List.of()));
+
+        assertThrows(CategoryNotFoundException.class, () -> productService.findProductsInCategorySubtree(1L));
+        verifyNoInteractions(productRepository);
+    }
 
     @Test
     public void getProductByIdTest() {
@@ -0,0 +1,68 @@
+package com.qual.store.service.impl;
+
+import com.qual.store.dto.ProductDto;
+import com.qual.store.dto.paginated.PaginatedProductResponse;
+import com.qual.store.exceptions.ProductNotFoundException;
+import com.qual.store.exceptions.ValidatorException;
+import com.qual.store.repository.reactive.ReactiveCatalogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveCatalogServiceImplTest {
+
+    @Mock
+    private ReactiveCatalogRepository reactiveCatalogRepository;
+
+    @InjectMocks
+    private ReactiveCatalogServiceImpl reactiveCatalogService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void getProductsTest() {
+        ProductDto productDto = ProductDto.builder().name("product").build();
+        when(reactiveCatalogRepository.findProducts("units_in_stock", 10, 20L)).thenReturn(Flux.just(productDto));
+        when(reactiveCatalogRepository.countProducts()).thenReturn(Mono.just(21L));
+
+        PaginatedProductResponse response = reactiveCatalogService.getProducts(2, 10, "unitsInStock").block();
+
+        assertNotNull(response);
+        assertEquals(1, response.getProducts().size());
+        assertEquals(21L, response.getNumberOfItems());
+        assertEquals(3, response.getNumberOfPages());
+    }
+
+    @Test
+    public void getProductsUnknownSortTest() {
+        Mono<PaginatedProductResponse> response = reactiveCatalogService.getProducts(0, 10, "name; drop table products");
+
+        assertThrows(ValidatorException.class, response::block);
+        verify(reactiveCatalogRepository, never()).findProducts(anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void getProductByIdNotFoundTest() {
+        when(reactiveCatalogRepository.findProductById(1L)).thenReturn(Mono.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> reactiveCatalogService.getProductById(1L).block());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+}
@@ -3,6 +3,7 @@ package com.qual.store.service.impl;
 import com.qual.store.converter.ReviewConverter;
 import com.qual.store.dto.ReviewDto;
 import com.qual.store.dto.request.ReviewRequestDto;
+import com.qual.store.events.ReviewChangedEvent;
 import com.qual.store.exceptions.ReviewNotFoundException;
 import com.qual.store.model.AppUser;
 import com.qual.store.model.Product;
@@ -10,6 +11,7 @@ import com.qual.store.model.Review;
 import com.qual.store.repository.AppUserRepository;
 import com.qual.store.repository.ProductRepository;
 import com.qual.store.repository.ReviewRepository;
+import com.qual.store.utils.outbox.Outbox;
 import com.qual.store.utils.validators.ReviewValidator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +48,9 @@ class ReviewServiceImplTest {
     @Mock
     private AppUserRepository appUserRepository;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -154,6 +159,7 @@ class ReviewServiceImplTest {
         verify(reviewRepository, times(1)).findByTitle(review.getTitle());
         verify(productRepository, times(1)).findById(productId);
         verify(productRepository, times(1)).save(product);
+        verify(outbox, times(1)).append(eq(Outbox.PRODUCT), eq(productId), any(ReviewChangedEvent.class));
         verifyNoMoreInteractions(reviewRepository);
         verifyNoMoreInteractions(productRepository);
     }
@@ -164,6 +170,10 @@ class ReviewServiceImplTest {
         Long reviewId = 1L;
         ReviewRequestDto reviewRequestDto = ReviewRequestDto.builder().build();
         Review review = new Review();
+        review.setId(reviewId);
+        Product product = new Product();
+        product.setId(2L);
+        review.setProduct(product);
         Optional<Review> reviewOptional = Optional.of(review);
         ReviewDto reviewDto = ReviewDto.builder().build();
 
@@ -176,6 +186,7 @@ class ReviewServiceImplTest {
         assertNotNull(result);
         verify(reviewValidator, times(1)).validate(reviewRequestDto);
         verify(reviewRepository, times(2)).findById(reviewId);
+        verify(outbox, times(1)).append(eq(Outbox.PRODUCT), eq(2L), any(ReviewChangedEvent.class));
         verifyNoMoreInteractions(reviewRepository);
     }
 
@@ -251,6 +262,7 @@ class ReviewServiceImplTest {
         verify(productRepository, times(1)).findById(anyLong());
         verify(reviewRepository, times(1)).delete(review);
         verify(productRepository, times(1)).save(product);
+        verify(outbox, times(1)).append(eq(Outbox.PRODUCT), eq(1L), any(ReviewChangedEvent.class));
         verifyNoMoreInteractions(reviewRepository);
         verifyNoMoreInteractions(productRepository);
     }
@@ -0,0 +1,116 @@
+package com.qual.store.service.impl;
+
+import com.qual.store.exceptions.InsufficientStockException;
+import com.qual.store.model.OrderItem;
+import com.qual.store.model.Product;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.utils.inventory.HotStockInventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ObjectProvider<HotStockInventory> hotStockInventoryProvider;
+
+    @Mock
+    private HotStockInventory hotStockInventory;
+
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void reserveAggregatesQuantitiesInProductIdOrderTest() {
+        // when
+        when(productRepository.reserveStock(anyLong(), anyLong())).thenReturn(1);
+        stockReservationService.reserve(List.of(orderItem(7L, 2), orderItem(3L, 1), orderItem(7L, 4)));
+
+        // then
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).reserveStock(3L, 1L);
+        inOrder.verify(productRepository).reserveStock(7L, 6L);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void reserveThrowsInsufficientStockExceptionTest() {
+        // when
+        when(productRepository.reserveStock(3L, 1L)).thenReturn(1);
+        when(productRepository.reserveStock(7L, 2L)).thenReturn(0);
+
+        // then
+        assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve(List.of(orderItem(7L, 2), orderItem(3L, 1))));
+    }
+
+    @Test
+    void releaseTest() {
+        // when
+        stockReservationService.release(List.of(orderItem(5L, 2), orderItem(5L, 3)));
+
+        // then
+        verify(productRepository, times(1)).applyStockDelta(5L, 5L);
+        verify(productRepository, never()).reserveStock(anyLong(), anyLong());
+    }
+
+    @Test
+    void reserveHotProductFromInventoryTest() {
+        // when
+        when(hotStockInventoryProvider.getIfAvailable()).thenReturn(hotStockInventory);
+        when(hotStockInventory.isHot(7L)).thenReturn(true);
+        when(hotStockInventory.reserve(7L, 2L)).thenReturn(true);
+        when(productRepository.reserveStock(3L, 1L)).thenReturn(1);
+        stockReservationService.reserve(List.of(orderItem(7L, 2), orderItem(3L, 1)));
+
+        // then
+        verify(hotStockInventory, times(1)).reserve(7L, 2L);
+        verify(productRepository, never()).reserveStock(eq(7L), anyLong());
+    }
+
+    @Test
+    void reserveHotProductSoldOutTest() {
+        // when
+        when(hotStockInventoryProvider.getIfAvailable()).thenReturn(hotStockInventory);
+        when(hotStockInventory.isHot(7L)).thenReturn(true);
+        when(hotStockInventory.reserve(7L, 2L)).thenReturn(false);
+
+        // then
+        assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve(List.of(orderItem(7L, 2))));
+    }
+
+    private OrderItem orderItem(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        return OrderItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .build();
+    }
+
+    @AfterEach
+    public void closeService() throws Exception {
+        closeable.close();
+    }
+}
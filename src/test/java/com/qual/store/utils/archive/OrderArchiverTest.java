@@ -0,0 +1,65 @@
+package com.qual.store.utils.archive;
+
+import com.qual.store.config.OrderArchiveProperties;
+import com.qual.store.repository.OrderRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class OrderArchiverTest {
+
+    private OrderArchiveProperties properties;
+
+    private OrderRepository orderRepository;
+
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderArchiveProperties();
+        properties.setArchiveAfterDays(30);
+        properties.setChunkSize(10);
+        properties.setMaxChunksPerRun(3);
+        orderRepository = mock(OrderRepository.class);
+        archiver = new OrderArchiver(properties, orderRepository);
+    }
+
+    @Test
+    void testChunksUntilOneIsShort() {
+        when(orderRepository.archiveFinishedOrders(any(), anyInt())).thenReturn(10, 10, 2);
+
+        archiver.archive();
+
+        verify(orderRepository, times(3)).archiveFinishedOrders(any(), eq(10));
+        Assertions.assertEquals(22, archiver.getArchivedOrders());
+    }
+
+    @Test
+    void testStopsAfterMaxChunksPerRun() {
+        when(orderRepository.archiveFinishedOrders(any(), anyInt())).thenReturn(10);
+
+        archiver.archive();
+        archiver.archive();
+
+        verify(orderRepository, times(6)).archiveFinishedOrders(any(), anyInt());
+        Assertions.assertEquals(60, archiver.getArchivedOrders());
+    }
+
+    @Test
+    void testCutoffIsArchiveAfterDaysAgo() {
+        when(orderRepository.archiveFinishedOrders(any(), anyInt())).thenReturn(0);
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        archiver.archive();
+
+        verify(orderRepository).archiveFinishedOrders(
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(before.plusMinutes(1))), eq(10));
+        Assertions.assertEquals(0, archiver.getArchivedOrders());
+    }
+}
@@ -0,0 +1,59 @@
+package com.qual.store.utils.basket;
+
+import com.qual.store.config.BasketReaperProperties;
+import com.qual.store.repository.OrderItemRepository;
+import com.qual.store.repository.OrderRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class BasketReaperTest {
+
+    private BasketReaperProperties properties;
+
+    private OrderRepository orderRepository;
+
+    private OrderItemRepository orderItemRepository;
+
+    private BasketReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BasketReaperProperties();
+        properties.setChunkSize(10);
+        properties.setMaxChunksPerRun(3);
+        orderRepository = mock(OrderRepository.class);
+        orderItemRepository = mock(OrderItemRepository.class);
+        reaper = new BasketReaper(properties, orderRepository, orderItemRepository);
+    }
+
+    @Test
+    void testChunksUntilOneIsShort() {
+        when(orderRepository.deleteIdleBaskets(any(), anyInt())).thenReturn(10, 4);
+        when(orderItemRepository.deleteOrphans(any(), anyInt())).thenReturn(0);
+
+        reaper.reap();
+
+        verify(orderRepository, times(2)).deleteIdleBaskets(any(), eq(10));
+        verify(orderItemRepository, times(1)).deleteOrphans(any(), eq(10));
+        Assertions.assertEquals(14, reaper.getReapedBaskets());
+        Assertions.assertEquals(0, reaper.getReapedOrderItems());
+    }
+
+    @Test
+    void testStopsAfterMaxChunksPerRun() {
+        when(orderRepository.deleteIdleBaskets(any(), anyInt())).thenReturn(10);
+        when(orderItemRepository.deleteOrphans(any(), anyInt())).thenReturn(10);
+
+        reaper.reap();
+
+        verify(orderRepository, times(3)).deleteIdleBaskets(any(), anyInt());
+        verify(orderItemRepository, times(3)).deleteOrphans(any(), anyInt());
+        Assertions.assertEquals(30, reaper.getReapedBaskets());
+        Assertions.assertEquals(30, reaper.getReapedOrderItems());
+    }
+}
@@ -0,0 +1,188 @@
+package com.qual.store.utils.basket;
+
+import com.qual.store.config.BasketStoreProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BasketStoreTest {
+
+    private BasketStoreProperties properties;
+
+    private BasketWriter basketWriter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BasketStoreProperties();
+        properties.setLockStripes(4);
+        basketWriter = mock(BasketWriter.class);
+    }
+
+    @Test
+    void testChangesAreCoalescedIntoOneWrite() {
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        store.add(1L, 10L, 1);
+        store.add(1L, 10L, 2);
+        store.setQuantity(1L, 11L, 4);
+        store.setQuantity(1L, 11L, 0);
+
+        Assertions.assertEquals(1, store.getDirtyBaskets());
+        Assertions.assertEquals(1, store.flush());
+        Assertions.assertEquals(0, store.flush());
+        verify(basketWriter, times(1)).load(any());
+        verify(basketWriter, times(1)).write(any());
+        Assertions.assertEquals(4, store.getChanges());
+        Assertions.assertEquals(1, store.getWrites());
+    }
+
+    @Test
+    void testBasketWhoseOrderWasDeletedIsDroppedFromMemory() {
+        BasketStore store = new BasketStore(properties, basketWriter);
+        doAnswer(invocation -> {
+            CachedBasket basket = invocation.getArgument(0);
+            basket.quantities.clear();
+            basket.orderDeleted = true;
+            return null;
+        }).when(basketWriter).write(any());
+
+        store.add(1L, 10L, 1);
+        Assertions.assertEquals(1, store.flush());
+
+        Assertions.assertEquals(0, store.getCachedBaskets());
+        Assertions.assertEquals(0, store.getDirtyBaskets());
+        Assertions.assertTrue(store.lines(1L).isEmpty());
+        verify(basketWriter, times(2)).load(any());
+    }
+
+    @Test
+    void testLinesAreReadFromMemory() {
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        store.add(1L, 10L, 1);
+        BasketLine line = store.add(1L, 10L, 2);
+        store.add(1L, 12L, 1);
+        List<BasketLine> lines = store.lines(1L);
+
+        Assertions.assertEquals(3, line.getQuantity());
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertEquals(10L, lines.get(0).getProductId());
+        Assertions.assertEquals(12L, lines.get(1).getProductId());
+        verify(basketWriter, times(1)).load(any());
+        verify(basketWriter, never()).write(any());
+    }
+
+    @Test
+    void testLoadedBasketKeepsItsStoredLines() {
+        doAnswer(invocation -> {
+            CachedBasket basket = invocation.getArgument(0);
+            basket.orderId = 5L;
+            basket.quantities.put(10L, 2);
+            basket.orderItemIds.put(10L, 7L);
+            return null;
+        }).when(basketWriter).load(any());
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        BasketLine line = store.add(1L, 10L, 1);
+
+        Assertions.assertEquals(3, line.getQuantity());
+        Assertions.assertEquals(5L, line.getOrderId());
+        Assertions.assertEquals(7L, line.getOrderItemId());
+    }
+
+    @Test
+    void testReleaseWritesAndDropsTheBasket() {
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        store.add(1L, 10L, 1);
+        store.release(1L);
+
+        verify(basketWriter, times(1)).write(any());
+        Assertions.assertEquals(0, store.getCachedBaskets());
+        Assertions.assertEquals(0, store.flush());
+    }
+
+    @Test
+    void testFailedWriteIsRetried() {
+        doThrow(new IllegalStateException("database down")).doNothing().when(basketWriter).write(any());
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        store.add(1L, 10L, 1);
+
+        Assertions.assertEquals(0, store.flush());
+        Assertions.assertEquals(1, store.getDirtyBaskets());
+        Assertions.assertEquals(1, store.flush());
+        Assertions.assertEquals(0, store.getDirtyBaskets());
+    }
+
+    @Test
+    void testDirtyBasketsAreWrittenBeforeEviction() {
+        properties.setMaxBaskets(2);
+        BasketStore store = new BasketStore(properties, basketWriter);
+
+        store.add(1L, 10L, 1);
+        store.add(2L, 10L, 1);
+        store.add(3L, 10L, 1);
+
+        Assertions.assertEquals(2, store.getCachedBaskets());
+        Assertions.assertEquals(2, store.getDirtyBaskets());
+        verify(basketWriter, times(1)).writeAndCommit(any());
+        Assertions.assertEquals(2, store.flush());
+        verify(basketWriter, times(2)).write(any());
+    }
+
+    @Test
+    void testChangesWaitForTheReleasingTransaction() throws Exception {
+        BasketStore store = new BasketStore(properties, basketWriter);
+        store.add(1L, 10L, 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.release(1L);
+            CompletableFuture<BasketLine> added = CompletableFuture.supplyAsync(() -> store.add(1L, 11L, 2));
+
+            Assertions.assertThrows(TimeoutException.class, () -> added.get(200, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            Assertions.assertEquals(2, added.get(5, TimeUnit.SECONDS).getQuantity());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // the checked out lines are not written again into a new basket
+        List<BasketLine> lines = store.lines(1L);
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertEquals(11L, lines.get(0).getProductId());
+        verify(basketWriter, times(2)).load(any());
+    }
+
+    @Test
+    void testRolledBackReleaseKeepsTheBasket() {
+        BasketStore store = new BasketStore(properties, basketWriter);
+        store.add(1L, 10L, 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.release(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(1, store.getCachedBaskets());
+        Assertions.assertEquals(1, store.flush());
+        Assertions.assertEquals(2, store.add(1L, 10L, 1).getQuantity());
+    }
+}
@@ -0,0 +1,50 @@
+package com.qual.store.utils.categories;
+
+import com.qual.store.dto.projection.CategoryTreeRow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CategoryTreeTest {
+    private CategoryTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = CategoryTree.of(List.of(
+                new CategoryTreeRow(1L, "Electronics", null, "/1/"),
+                new CategoryTreeRow(3L, "Tablets", 1L, "/1/3/"),
+                new CategoryTreeRow(2L, "Phones", 1L, "/1/2/"),
+                new CategoryTreeRow(4L, "Smartphones", 2L, "/1/2/4/"),
+                new CategoryTreeRow(5L, "Books", null, "/5/")
+        ));
+    }
+
+    @Test
+    void testRootsAndChildrenAreSortedByName() {
+        Assertions.assertEquals(List.of("Books", "Electronics"),
+                tree.getRoots().stream().map(CategoryTree.Node::getName).toList());
+        Assertions.assertEquals(List.of("Phones", "Tablets"),
+                tree.find(1L).orElseThrow().getChildren().stream().map(CategoryTree.Node::getName).toList());
+        Assertions.assertEquals(5, tree.size());
+    }
+
+    @Test
+    void testIsInSubtreeOf() {
+        CategoryTree.Node electronics = tree.find(1L).orElseThrow();
+        CategoryTree.Node smartphones = tree.find(4L).orElseThrow();
+
+        Assertions.assertTrue(smartphones.isInSubtreeOf(electronics));
+        Assertions.assertFalse(electronics.isInSubtreeOf(smartphones));
+        Assertions.assertFalse(smartphones.isInSubtreeOf(tree.find(5L).orElseThrow()));
+    }
+
+    @Test
+    void testOrphanBecomesRoot() {
+        CategoryTree orphanTree = CategoryTree.of(List.of(new CategoryTreeRow(7L, "Orphan", 99L, "/99/7/")));
+
+        Assertions.assertEquals(1, orphanTree.getRoots().size());
+        Assertions.assertTrue(orphanTree.find(99L).isEmpty());
+    }
+}
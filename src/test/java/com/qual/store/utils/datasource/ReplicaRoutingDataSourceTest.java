@@ -0,0 +1,149 @@
+package com.qual.store.utils.datasource;
+
+import com.qual.store.config.ReplicaProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaProperties properties;
+
+    private Map<String, DataSource> replicas;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties = new ReplicaProperties();
+        properties.setMaxLagMillis(1000);
+        replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaWithLag(0));
+        replicas.put("replica-2", replicaWithLag(200));
+        routing = new ReplicaRoutingDataSource(properties, mock(DataSource.class), replicas);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testWritesGoToThePrimary() {
+        routing.checkLag();
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        Assertions.assertEquals(1, routing.getPrimaryRoutes());
+    }
+
+    @Test
+    void testReadsAreSpreadOverReplicas() {
+        routing.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+        Assertions.assertEquals("replica-2", routing.determineCurrentLookupKey());
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+        Assertions.assertEquals(3, routing.getReplicaRoutes());
+    }
+
+    @Test
+    void testReadsStayOnThePrimaryUntilLagWasChecked() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testLaggingOrUnreachableReplicasGetNoReads() throws SQLException {
+        replicas.put("replica-2", replicaWithLag(5000));
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("connection refused"));
+        replicas.put("replica-3", unreachable);
+        routing.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals(List.of("replica-1"), routing.getUsableReplicas());
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+        Assertions.assertEquals(Long.MAX_VALUE, routing.getLagMillis("replica-3"));
+    }
+
+    @Test
+    void testReplicaThatStoppedStreamingGetsNoReads() throws SQLException {
+        replicas.put("replica-2", replicaWithLag(0, false));
+        routing.checkLag();
+
+        Assertions.assertEquals(List.of("replica-1"), routing.getUsableReplicas());
+        Assertions.assertEquals(Long.MAX_VALUE, routing.getLagMillis("replica-2"));
+    }
+
+    @Test
+    void testUserReadsTheirOwnWritesFromThePrimary() {
+        routing.checkLag();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ana", null, List.of()));
+
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        Assertions.assertEquals(1, routing.getReadYourWritesRoutes());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRolledBackWritesDoNotPinTheUser() {
+        routing.checkLag();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ana", null, List.of()));
+
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    private DataSource replicaWithLag(long lagMillis) throws SQLException {
+        return replicaWithLag(lagMillis, true);
+    }
+
+    private DataSource replicaWithLag(long lagMillis, boolean streaming) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(streaming);
+        when(resultSet.getLong(2)).thenReturn(lagMillis);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,133 @@
+package com.qual.store.utils.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private Map<WorkloadPool, DataSource> pools;
+
+    private WorkloadRoutingDataSource routing;
+
+    private Reports reports;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(DataSource.class);
+        pools = new EnumMap<>(WorkloadPool.class);
+        for (WorkloadPool workloadPool : WorkloadPool.values()) {
+            pools.put(workloadPool, mock(DataSource.class));
+        }
+        routing = new WorkloadRoutingDataSource(primary, pools);
+
+        Checkout checkout = proxy(new Checkout(routing));
+        reports = proxy(new Reports(routing, checkout));
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.leave();
+    }
+
+    @Test
+    void testAnnotatedMethodUsesItsPool() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(pools.get(WorkloadPool.REPORTS).getConnection()).thenReturn(connection);
+
+        Assertions.assertSame(connection, reports.report());
+        Assertions.assertNull(WorkloadContext.current());
+    }
+
+    @Test
+    void testClassAnnotationAppliesToEveryMethod() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(pools.get(WorkloadPool.REPORTS).getConnection()).thenReturn(connection);
+
+        Assertions.assertSame(connection, reports.unannotated());
+    }
+
+    @Test
+    void testOutermostWorkloadDecides() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(pools.get(WorkloadPool.REPORTS).getConnection()).thenReturn(connection);
+
+        Assertions.assertSame(connection, reports.reportThenCheckout());
+        verify(pools.get(WorkloadPool.CHECKOUT), never()).getConnection();
+    }
+
+    @Test
+    void testWithoutWorkloadThePrimaryIsUsed() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(connection);
+
+        Assertions.assertSame(connection, routing.getConnection());
+    }
+
+    @Test
+    void testWorkloadIsLeftWhenTheMethodThrows() {
+        Assertions.assertThrows(IllegalStateException.class, () -> reports.fail());
+        Assertions.assertNull(WorkloadContext.current());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new WorkloadAspect());
+        return (T) factory.getProxy();
+    }
+
+    @Workload(WorkloadPool.REPORTS)
+    static class Reports {
+        private final DataSource dataSource;
+        private final Checkout checkout;
+
+        Reports(DataSource dataSource, Checkout checkout) {
+            this.dataSource = dataSource;
+            this.checkout = checkout;
+        }
+
+        @Workload(WorkloadPool.REPORTS)
+        public Connection report() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        public Connection unannotated() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        public Connection reportThenCheckout() throws SQLException {
+            return checkout.checkout();
+        }
+
+        public void fail() {
+            throw new IllegalStateException("report failed");
+        }
+    }
+
+    static class Checkout {
+        private final DataSource dataSource;
+
+        Checkout(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Workload(WorkloadPool.CHECKOUT)
+        public Connection checkout() throws SQLException {
+            return dataSource.getConnection();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.qual.store.utils.inventory;
+
+import com.qual.store.config.HotStockProperties;
+import com.qual.store.model.StockJournalEntry;
+import com.qual.store.repository.ProductRepository;
+import com.qual.store.repository.StockJournalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HotStockInventoryTest {
+
+    private HotStockProperties properties;
+
+    private ProductRepository productRepository;
+
+    private StockJournalRepository stockJournalRepository;
+
+    private HotStockInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HotStockProperties();
+        properties.setProductIds(Set.of(1L));
+        properties.setStripes(4);
+        productRepository = mock(ProductRepository.class);
+        stockJournalRepository = mock(StockJournalRepository.class);
+        when(productRepository.findAvailableStock(1L)).thenReturn(Optional.of(10L));
+        inventory = new HotStockInventory(properties, productRepository, stockJournalRepository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testRolledBackReservationGivesTheUnitsBack() {
+        Assertions.assertTrue(inventory.reserve(1L, 4));
+        Assertions.assertEquals(6, inventory.available(1L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(10, inventory.available(1L));
+        verify(stockJournalRepository, times(1)).save(journalEntry(-4));
+    }
+
+    @Test
+    void testCommittedReservationKeepsTheUnits() {
+        Assertions.assertTrue(inventory.reserve(1L, 4));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(6, inventory.available(1L));
+    }
+
+    @Test
+    void testRefusedReservationWritesNothing() {
+        Assertions.assertFalse(inventory.reserve(1L, 11));
+
+        Assertions.assertEquals(10, inventory.available(1L));
+        verify(stockJournalRepository, never()).save(any());
+    }
+
+    @Test
+    void testReleaseOnlyAddsOnCommit() {
+        inventory.release(1L, 3);
+        Assertions.assertEquals(10, inventory.available(1L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(13, inventory.available(1L));
+        verify(stockJournalRepository, times(1)).save(journalEntry(3));
+    }
+
+    @Test
+    void testRolledBackReleaseAddsNothing() {
+        inventory.release(1L, 3);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(10, inventory.available(1L));
+    }
+
+    @Test
+    void testRaisedStockIsJournaledAndAvailableOnCommit() {
+        Assertions.assertEquals(5, inventory.setAvailable(1L, 15));
+        Assertions.assertEquals(10, inventory.available(1L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(15, inventory.available(1L));
+        verify(stockJournalRepository, times(1)).save(journalEntry(5));
+    }
+
+    @Test
+    void testLoweredStockIsTakenAtOnceAndRestoredOnRollback() {
+        Assertions.assertEquals(-7, inventory.setAvailable(1L, 3));
+        Assertions.assertEquals(3, inventory.available(1L));
+        verify(stockJournalRepository, times(1)).save(journalEntry(-7));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(10, inventory.available(1L));
+    }
+
+    @Test
+    void testLoweredStockTakesNoMoreThanIsLeft() {
+        Assertions.assertTrue(inventory.reserve(1L, 10));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // an edit to -2 cannot take units already reserved
+        Assertions.assertEquals(0, inventory.setAvailable(1L, -2));
+
+        Assertions.assertEquals(0, inventory.available(1L));
+        verify(stockJournalRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testUnchangedStockWritesNothing() {
+        Assertions.assertEquals(0, inventory.setAvailable(1L, 10));
+
+        verify(stockJournalRepository, never()).save(any());
+    }
+
+    @Test
+    void testFlushSumsDeltasPerProduct() {
+        when(stockJournalRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(
+                journalEntry(1L, 1L, -2), journalEntry(2L, 2L, -1), journalEntry(3L, 1L, -3),
+                journalEntry(4L, 2L, 1), journalEntry(5L, 3L, 4)));
+
+        Assertions.assertEquals(5, inventory.flush());
+
+        verify(productRepository, times(1)).applyStockDelta(1L, -5);
+        verify(productRepository, times(1)).applyStockDelta(3L, 4);
+        // the deltas of product 2 cancel out
+        verify(productRepository, never()).applyStockDelta(eq(2L), anyLong());
+        verify(stockJournalRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L, 3L, 4L, 5L));
+        Assertions.assertEquals(5, inventory.getFlushedEntries());
+    }
+
+    @Test
+    void testFlushDeletesInChunks() {
+        List<StockJournalEntry> entries = LongStream.rangeClosed(1, 1200)
+                .mapToObj(id -> journalEntry(id, 1L, -1))
+                .toList();
+        when(stockJournalRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(entries);
+
+        Assertions.assertEquals(1200, inventory.flush());
+
+        verify(productRepository, times(1)).applyStockDelta(1L, -1200);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(stockJournalRepository, times(3)).deleteAllByIdInBatch(chunks.capture());
+        Assertions.assertEquals(List.of(500, 500, 200), chunks.getAllValues().stream().map(List::size).toList());
+        List<Long> deleted = new ArrayList<>();
+        chunks.getAllValues().forEach(deleted::addAll);
+        Assertions.assertEquals(entries.stream().map(StockJournalEntry::getId).toList(), deleted);
+    }
+
+    @Test
+    void testEmptyFlushDoesNothing() {
+        when(stockJournalRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        Assertions.assertEquals(0, inventory.flush());
+
+        verify(productRepository, never()).applyStockDelta(any(), anyLong());
+        verify(stockJournalRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static StockJournalEntry journalEntry(long delta) {
+        return StockJournalEntry.builder().productId(1L).delta(delta).build();
+    }
+
+    private static StockJournalEntry journalEntry(Long id, Long productId, long delta) {
+        StockJournalEntry entry = journalEntry(delta);
+        entry.setProductId(productId);
+        entry.setId(id);
+        return entry;
+    }
+}
@@ -0,0 +1,79 @@
+package com.qual.store.utils.inventory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class StripedStockCounterTest {
+
+    @Test
+    void testUnitsAreSpreadOverStripes() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        Assertions.assertEquals(10, counter.available());
+    }
+
+    @Test
+    void testTakeAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        Assertions.assertTrue(counter.tryTake(9));
+        Assertions.assertEquals(1, counter.available());
+        Assertions.assertFalse(counter.tryTake(2));
+        Assertions.assertEquals(1, counter.available());
+        Assertions.assertTrue(counter.tryTake(1));
+        Assertions.assertEquals(0, counter.available());
+    }
+
+    @Test
+    void testDrainTakesNoMoreThanIsLeft() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        Assertions.assertEquals(7, counter.drain(7));
+        Assertions.assertEquals(3, counter.drain(5));
+        Assertions.assertEquals(0, counter.available());
+    }
+
+    @Test
+    void testAddMakesUnitsAvailableAgain() {
+        StripedStockCounter counter = new StripedStockCounter(2, 0);
+
+        Assertions.assertFalse(counter.tryTake(1));
+        counter.add(3);
+        Assertions.assertTrue(counter.tryTake(3));
+    }
+
+    @Test
+    void testConcurrentTakesNeverOversell() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(8, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int attempt = 0; attempt < 100; attempt++) {
+                    if (counter.tryTake(1)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(1000, granted.get());
+        Assertions.assertEquals(0, counter.available());
+    }
+}
@@ -0,0 +1,63 @@
+package com.qual.store.utils.outbox;
+
+import com.qual.store.config.OutboxProperties;
+import com.qual.store.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+    private OutboxProperties properties;
+
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxDelivery outboxDelivery;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        outboxDelivery = mock(OutboxDelivery.class);
+        dispatcher = new OutboxDispatcher(properties, outboxEventRepository, outboxDelivery);
+    }
+
+    @Test
+    void testDispatchDrainsUntilNothingIsDelivered() {
+        when(outboxEventRepository.findDispatchableIds(any(), anyInt(), anyInt()))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(outboxDelivery.deliver(anyLong())).thenReturn(true);
+
+        Assertions.assertEquals(3, dispatcher.dispatch());
+        Assertions.assertEquals(3, dispatcher.getDelivered());
+        verify(outboxEventRepository, times(3)).findDispatchableIds(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testEventsLockedElsewhereAreSkipped() {
+        when(outboxEventRepository.findDispatchableIds(any(), anyInt(), anyInt())).thenReturn(List.of(1L));
+        when(outboxDelivery.deliver(1L)).thenReturn(false);
+
+        Assertions.assertEquals(0, dispatcher.dispatch());
+        verify(outboxEventRepository, times(1)).findDispatchableIds(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFailedDeliveryIsRecordedAndOthersContinue() {
+        when(outboxEventRepository.findDispatchableIds(any(), anyInt(), anyInt()))
+                .thenReturn(List.of(1L, 2L), List.of());
+        when(outboxDelivery.deliver(1L)).thenThrow(new IllegalStateException("listener failed"));
+        when(outboxDelivery.deliver(2L)).thenReturn(true);
+
+        Assertions.assertEquals(1, dispatcher.dispatch());
+        Assertions.assertEquals(1, dispatcher.getFailed());
+        verify(outboxDelivery, times(1)).recordFailure(1L, "listener failed", properties.getRetryDelayMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package com.qual.store.utils.pricing;
+
+import com.qual.store.config.PricingProperties;
+import com.qual.store.model.Order;
+import com.qual.store.model.OrderItem;
+import com.qual.store.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderPriceCalculatorTest {
+
+    private PricingProperties properties;
+
+    private OrderPriceCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PricingProperties();
+        properties.setDeliveryCents(1500);
+        calculator = new OrderPriceCalculator(properties);
+    }
+
+    @Test
+    void testToCentsRoundsHalfUp() {
+        Assertions.assertEquals(1999, OrderPriceCalculator.toCents(19.99));
+        Assertions.assertEquals(101, OrderPriceCalculator.toCents(1.005));
+        Assertions.assertEquals(0, OrderPriceCalculator.toCents(0));
+    }
+
+    @Test
+    void testPriceLineSnapshotsPriceAndDiscount() {
+        OrderItem orderItem = line(10.99, 15, 1);
+
+        calculator.priceLine(orderItem);
+        orderItem.getProduct().setPrice(20);
+
+        Assertions.assertEquals(1099, orderItem.getUnitPriceCents());
+        Assertions.assertEquals(165, orderItem.getUnitDiscountCents());
+    }
+
+    @Test
+    void testAddAndChangeLinesUpdateTotals() {
+        Order order = Order.builder().build();
+        OrderItem first = line(10, 10, 2);
+        OrderItem second = line(2.5, 0, 4);
+
+        calculator.addLine(order, first);
+        calculator.addLine(order, second);
+
+        Assertions.assertEquals(3000, order.getSubtotalCents());
+        Assertions.assertEquals(200, order.getDiscountCents());
+        Assertions.assertEquals(1500, order.getDeliveryCents());
+        Assertions.assertEquals(4300, order.getTotalCents());
+        Assertions.assertEquals(43.0, order.getDeliveryPrice());
+
+        calculator.changeQuantity(order, first, 2, 1);
+
+        Assertions.assertEquals(2000, order.getSubtotalCents());
+        Assertions.assertEquals(100, order.getDiscountCents());
+        Assertions.assertEquals(3400, order.getTotalCents());
+    }
+
+    @Test
+    void testEmptyOrderHasNoDelivery() {
+        Order order = Order.builder().build();
+        OrderItem orderItem = line(5, 0, 1);
+
+        calculator.addLine(order, orderItem);
+        calculator.removeLine(order, orderItem);
+
+        Assertions.assertEquals(0, order.getSubtotalCents());
+        Assertions.assertEquals(0, order.getDeliveryCents());
+        Assertions.assertEquals(0, order.getTotalCents());
+    }
+
+    @Test
+    void testFreeDeliveryAfterDiscounts() {
+        properties.setFreeDeliveryFromCents(5000);
+        Order order = Order.builder().build();
+        OrderItem orderItem = line(50, 10, 1);
+
+        calculator.addLine(order, orderItem);
+        Assertions.assertEquals(1500, order.getDeliveryCents());
+
+        calculator.changeQuantity(order, orderItem, 1, 2);
+        Assertions.assertEquals(0, order.getDeliveryCents());
+        Assertions.assertEquals(9000, order.getTotalCents());
+    }
+
+    private OrderItem line(double price, double discountPercentage, int quantity) {
+        Product product = new Product();
+        product.setPrice(price);
+        product.setDiscountPercentage(discountPercentage);
+        return OrderItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .build();
+    }
+}